@@ -0,0 +1,42 @@
+package com.moniev.verlet.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar: {@code java -jar benchmarks/target/benchmarks.jar [JMH options]}.
+ * Accepts the usual JMH command line, but writes the results as JSON to {@code jmh-result.json} unless another
+ * format or file is given, so runs of different releases can be compared.
+ */
+public class BenchmarkRunner {
+
+    public static final String DEFAULT_RESULT = "jmh-result.json";  // File receiving the results when none is given
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args The JMH command line, for example {@code OctreeBenchmark -p particles=10000 -p threads=4}.
+     * @throws CommandLineOptionException If the command line is invalid.
+     * @throws RunnerException If a benchmark fails.
+     * @throws IOException If the benchmark list cannot be printed.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue()) builder.resultFormat(ResultFormatType.JSON);
+        if (!options.getResult().hasValue()) builder.result(DEFAULT_RESULT);
+        new Runner(builder.build()).run();
+    }
+}
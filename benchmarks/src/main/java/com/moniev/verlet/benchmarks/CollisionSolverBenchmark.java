@@ -0,0 +1,100 @@
+package com.moniev.verlet.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moniev.verlet.core.MainEngine.CollisionSolverTask;
+import com.moniev.verlet.core.MainEngine.ColoredContactSolver;
+import com.moniev.verlet.core.MainEngine.ContactBuffer;
+import com.moniev.verlet.core.MainEngine.ContactCollector;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Measures the resolution of the contacts of a scene, one contact after another and color by color in parallel.
+ * The positions are restored before every invocation, so every invocation resolves the same overlaps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionSolverBenchmark {
+
+    /**
+     * A scene with its contacts and a copy of its positions.
+     */
+    public static class ContactScene extends SceneState {
+
+        public ContactBuffer contacts;  // Contacts of the generated scene
+        public ColoredContactSolver coloredSolver;  // Solver running on the engine's scheduler
+        private float[] x, y, z, prevX, prevY, prevZ;  // Positions of the generated scene
+
+        /**
+         * Finds the contacts of the scene and saves its positions.
+         */
+        @Override
+        protected void prepare() {
+            ContactCollector collector = new ContactCollector();
+            engine.broadPhase.findPairs(collector);
+            contacts = new ContactBuffer(1 << 16);
+            collector.drainTo(contacts);
+            coloredSolver = new ColoredContactSolver(engine.store, engine.scheduler);
+
+            ParticleStore store = engine.store;
+            x = store.x.clone();
+            y = store.y.clone();
+            z = store.z.clone();
+            prevX = store.prevX.clone();
+            prevY = store.prevY.clone();
+            prevZ = store.prevZ.clone();
+        }
+
+        /**
+         * Puts the particles back where the contacts were found, outside of the measurement.
+         */
+        @Setup(Level.Invocation)
+        public void restorePositions() {
+            ParticleStore store = engine.store;
+            int n = store.size();
+            System.arraycopy(x, 0, store.x, 0, n);
+            System.arraycopy(y, 0, store.y, 0, n);
+            System.arraycopy(z, 0, store.z, 0, n);
+            System.arraycopy(prevX, 0, store.prevX, 0, n);
+            System.arraycopy(prevY, 0, store.prevY, 0, n);
+            System.arraycopy(prevZ, 0, store.prevZ, 0, n);
+        }
+    }
+
+    /**
+     * Resolves every contact in order on the calling thread.
+     *
+     * @param scene The scene.
+     */
+    @Benchmark
+    public void resolveCollision(ContactScene scene) {
+        ContactBuffer contacts = scene.contacts;
+        ParticleStore store = scene.engine.store;
+        for (int k = 0; k < contacts.size(); k++) {
+            CollisionSolverTask.resolve(store, contacts.p1(k), contacts.p2(k), scene.dt);
+        }
+    }
+
+    /**
+     * Resolves every contact with the colored solver of the engine.
+     *
+     * @param scene The scene.
+     */
+    @Benchmark
+    public void coloredSolve(ContactScene scene) {
+        scene.coloredSolver.solve(scene.contacts, scene.dt);
+    }
+}
@@ -0,0 +1,33 @@
+package com.moniev.verlet.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one complete substep of the engine: contact search, contact resolution, integration and re-binning.
+ * The scene keeps evolving between invocations, a free fall gradually settles into a pile over a long run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    /**
+     * Runs one update of the scene's engine, configured with a single substep.
+     *
+     * @param scene The scene.
+     */
+    @Benchmark
+    public void substep(SceneState scene) {
+        scene.engine.update();
+    }
+}
@@ -0,0 +1,39 @@
+package com.moniev.verlet.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moniev.verlet.core.MainEngine.Integrator;
+
+/**
+ * Measures the per-particle update: gravity, the Verlet step and the walls, run as one parallel pass over the store.
+ * The walls keep the scene bounded however many invocations are run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntegratorBenchmark {
+
+    private static final int PARTICLE_GRAIN = 4096;  // Particles advanced by one task
+
+    /**
+     * Advances every particle of the scene by one substep.
+     *
+     * @param scene The scene.
+     */
+    @Benchmark
+    public void particleUpdate(SceneState scene) {
+        Integrator integrator = scene.engine.integrator;
+        float dt = scene.dt;
+        scene.backend.parallelFor(scene.engine.store.size(), PARTICLE_GRAIN, (from, to) -> integrator.advance(from, to, dt));
+    }
+}
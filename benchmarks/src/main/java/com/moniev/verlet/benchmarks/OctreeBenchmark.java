@@ -0,0 +1,97 @@
+package com.moniev.verlet.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moniev.verlet.core.MainEngine.ContactBuffer;
+import com.moniev.verlet.core.MainEngine.ContactCollector;
+
+/**
+ * Measures the octree passes: the search within leaves ({@link com.moniev.verlet.core.MainEngine.CollisionTask}),
+ * the search across adjacent leaves ({@link com.moniev.verlet.core.MainEngine.OuterCollisionTask})
+ * and the relocation of the particles that left their leaf.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OctreeBenchmark {
+
+    private final ContactCollector collector = new ContactCollector();  // Per-thread buffers receiving the contacts
+    private final ContactBuffer contacts = new ContactBuffer(1 << 16);  // Contacts drained after every search
+
+    /**
+     * A scene moved by one substep before every invocation, so the particles cross leaf bounds as in a running simulation.
+     */
+    public static class MovingScene extends SceneState {
+
+        /**
+         * Advances every particle by one substep, outside of the measurement.
+         */
+        @Setup(Level.Invocation)
+        public void move() {
+            engine.integrator.advance(0, engine.store.size(), dt);
+        }
+    }
+
+    /**
+     * Finds the contacts between particles of the same leaf.
+     *
+     * @param scene The scene.
+     * @return The number of contacts found.
+     */
+    @Benchmark
+    public int innerSearch(SceneState scene) {
+        scene.engine.tree.findInnerCollisionsParallel(collector);
+        return drain();
+    }
+
+    /**
+     * Finds the contacts between particles of adjacent leaves.
+     *
+     * @param scene The scene.
+     * @return The number of contacts found.
+     */
+    @Benchmark
+    public int outerSearch(SceneState scene) {
+        scene.engine.tree.findOuterCollisionsParallel(collector);
+        return drain();
+    }
+
+    /**
+     * Moves the particles that left their leaf and merges the sparse subtrees.
+     *
+     * @param scene The scene, moved before every invocation.
+     * @return The number of relocated particles.
+     */
+    @Benchmark
+    public int updateSpatialLookup(MovingScene scene) {
+        scene.engine.tree.updateSpatialLookup();
+        return scene.engine.tree.getLastMoved();
+    }
+
+    /**
+     * Empties the contact buffers for the next invocation.
+     *
+     * @return The number of contacts they held.
+     */
+    private int drain() {
+        collector.drainTo(contacts);
+        int found = contacts.size();
+        contacts.clear();
+        return found;
+    }
+}
@@ -0,0 +1,9 @@
+package com.moniev.verlet.benchmarks;
+
+/**
+ * The particle arrangements the benchmark scenes are generated with, see {@link Scenes}.
+ */
+public enum Packing {
+    FREE_FALL,     // Particles scattered through the whole world with random velocities, few contacts and many leaf changes
+    SETTLED_PILE   // Particles stacked on the floor slightly closer than a diameter apart, many contacts and little motion
+}
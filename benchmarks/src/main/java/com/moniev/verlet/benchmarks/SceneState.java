@@ -0,0 +1,61 @@
+package com.moniev.verlet.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.ExecutionBackend;
+import com.moniev.verlet.core.MainEngine.ForkJoinBackend;
+
+/**
+ * An engine seeded with a generated scene, shared by every benchmark of a trial.
+ * The scene is built once per trial on a fork/join backend with exactly the requested number of threads.
+ */
+@State(Scope.Benchmark)
+public class SceneState {
+
+    @Param({"1000", "10000", "100000", "500000"})
+    public int particles;  // Number of particles of the scene
+
+    @Param({"FREE_FALL", "SETTLED_PILE"})
+    public Packing packing;  // Arrangement of the particles
+
+    @Param({"1", "4", "8"})
+    public int threads;  // Threads of the backend running the parallel passes
+
+    public ExecutionBackend backend;  // Backend of the engine, owned by this state
+    public Engine engine;  // Engine holding the scene
+    public float dt;  // Time step of one substep
+
+    /**
+     * Builds the engine, generates the scene and lets subclasses prepare their own data.
+     */
+    @Setup(Level.Trial)
+    public void createScene() {
+        backend = new ForkJoinBackend(threads);
+        engine = new Engine(Scenes.config(particles, threads), backend);
+        Scenes.populate(engine, particles, packing, Scenes.SEED);
+        dt = engine.mFrameDt / engine.subSteps;
+        prepare();
+    }
+
+    /**
+     * Prepares the data of a subclass once the scene exists.
+     * JMH does not order the setup methods of a state hierarchy, so subclasses override this instead of declaring their own trial setup.
+     */
+    protected void prepare() {
+    }
+
+    /**
+     * Releases the engine and stops the backend.
+     */
+    @TearDown(Level.Trial)
+    public void disposeScene() {
+        engine.dispose();
+        backend.shutdown();
+    }
+}
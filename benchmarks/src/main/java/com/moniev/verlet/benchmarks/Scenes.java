@@ -0,0 +1,87 @@
+package com.moniev.verlet.benchmarks;
+
+import java.util.Random;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.EngineConfig;
+import com.moniev.verlet.core.MainEngine.OctreeLimits;
+
+/**
+ * Deterministic scene generators seeding the engines of the benchmarks.
+ * The same particle count, packing and seed always produce the same particle state, so results are comparable between runs.
+ */
+public class Scenes {
+
+    public static final long SEED = 0x5eed;  // Seed of every generated scene
+    private static final float RADIUS = 0.5f;  // Radius of every particle
+    private static final float VOLUME_FRACTION = 0.05f;  // Part of the world filled by the particles of a scene
+    private static final float PILE_SPACING = 0.98f;  // Distance between neighbors of the pile, in diameters
+    private static final float MAX_SPEED = 4f;  // Largest velocity component of a falling particle
+
+    /**
+     * Returns the half extent of a world holding the given number of particles at the scene volume fraction.
+     *
+     * @param particles The number of particles.
+     * @return The half extent of the world.
+     */
+    public static int worldSize(int particles) {
+        double volume = particles * (4.0 / 3.0) * Math.PI * RADIUS * RADIUS * RADIUS / VOLUME_FRACTION;
+        return Math.max(8, (int) Math.ceil(Math.cbrt(volume) / 2));
+    }
+
+    /**
+     * Returns the settings of an engine sized for the given scene, with a single substep per update.
+     * The octree gets one level per halving of the world down to leaves about two diameters wide.
+     *
+     * @param particles The number of particles.
+     * @param threads The number of threads of the engine.
+     * @return The engine settings.
+     */
+    public static EngineConfig config(int particles, int threads) {
+        int size = worldSize(particles);
+        EngineConfig config = new EngineConfig(particles, size, 1, 60);
+        config.threads = threads;
+        config.particleRadius = RADIUS;
+        int depth = Math.max(3, 31 - Integer.numberOfLeadingZeros(size));
+        config.octreeLimits = OctreeLimits.uniform(depth, 16, 0.5f);
+        return config;
+    }
+
+    /**
+     * Adds the particles of a scene to an empty engine and bins them.
+     *
+     * @param engine The engine, sized with {@link #config(int, int)}.
+     * @param particles The number of particles.
+     * @param packing The arrangement of the particles.
+     * @param seed The seed of the random positions and velocities.
+     */
+    public static void populate(Engine engine, int particles, Packing packing, long seed) {
+        Random random = new Random(seed);
+        float low = -engine.size + RADIUS, width = 2 * (engine.size - RADIUS);
+
+        if (packing == Packing.FREE_FALL) {
+            for (int i = 0; i < particles; i++) {
+                engine.addParticle(
+                    low + random.nextFloat() * width,
+                    low + random.nextFloat() * width,
+                    low + random.nextFloat() * width,
+                    (random.nextFloat() * 2 - 1) * MAX_SPEED,
+                    (random.nextFloat() * 2 - 1) * MAX_SPEED,
+                    (random.nextFloat() * 2 - 1) * MAX_SPEED);
+            }
+        } else {
+            float spacing = 2 * RADIUS * PILE_SPACING;
+            int row = Math.max(1, (int) (width / spacing));
+            for (int i = 0; i < particles; i++) {
+                int column = i % row, depth = (i / row) % row, layer = i / (row * row);
+                float jitter = spacing * 0.01f;
+                engine.addParticle(
+                    low + column * spacing + (random.nextFloat() * 2 - 1) * jitter,
+                    low + layer * spacing,
+                    low + depth * spacing + (random.nextFloat() * 2 - 1) * jitter,
+                    0, 0, 0);
+            }
+        }
+        engine.broadPhase.rebin();
+    }
+}
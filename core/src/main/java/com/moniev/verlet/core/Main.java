@@ -1,5 +1,6 @@
 package com.moniev.verlet.core;
 
+import com.badlogic.gdx.Application.ApplicationType;
 import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
@@ -11,6 +12,14 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
 import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.EngineConfig;
+import com.moniev.verlet.core.MainEngine.EngineCounter;
+import com.moniev.verlet.core.MainEngine.EngineStats;
+import com.moniev.verlet.core.MainEngine.SimulationPhase;
+import com.moniev.verlet.core.MainEngine.SimulationThread;
+import com.moniev.verlet.core.MainEngine.SnapshotBuffer;
+import com.moniev.verlet.core.Render.OctreeRenderer;
+import com.moniev.verlet.core.Render.ParticleRenderer;
 
 /**
  * Main class for initializing and rendering the simulation.
@@ -21,15 +30,42 @@ public class Main implements ApplicationListener {
     public PerspectiveCamera camera; // Camera for 3D perspective rendering.
     public CameraInputController cameraController; // Controller to handle camera input and movement.
     public Engine engine; // The game or simulation engine responsible for processing and updating the scene.
+    public SimulationThread simulation; // Thread stepping the engine in asynchronous mode, null otherwise.
+    private final boolean asyncSimulation; // Whether the engine is stepped on its own thread instead of in render().
     private BitmapFont font; // Font used for rendering text on the screen.
     public ModelBatch modelBatch; // Used for batching and rendering 3D models efficiently.
+    private ParticleRenderer particleRenderer; // Draws the engine's particles.
+    private OctreeRenderer treeRenderer; // Draws the leaves of the engine's octree.
     private SpriteBatch spriteBatch; // Used for 2D sprite rendering.
 
     private boolean renderTree, renderParticles; // Flags to control whether the tree and particles should be rendered.
     private boolean showFPS, showThreads, showMemoryUsage, showParticleCount; // Flags to show various performance metrics like FPS, threads, memory usage, and particle count.
+    private boolean showPhaseStats; // Flag to show the latency of every substep phase and the work counters.
     private boolean paused; // Flag to pause the simulation or game.
+    private final EngineStats statsTotal = new EngineStats(); // Engine statistics at the latest capture.
+    private final EngineStats statsBaseline = new EngineStats(); // Engine statistics at the previous capture.
+    private final EngineStats statsWindow = new EngineStats(); // Engine statistics between the two latest captures, shown by the overlay.
+    private long statsCapturedNanos; // Time of the latest capture.
     private int loop; // Counter for loop iterations (could be used for timing or limiting frame updates).
 
+    /**
+     * Constructs the application, stepping the simulation on its own thread if the
+     * {@code verlet.async} system property is set to true.
+     */
+    public Main() {
+        this(Boolean.getBoolean("verlet.async"));
+    }
+
+    /**
+     * Constructs the application.
+     * 
+     * @param asyncSimulation true to step the simulation on its own thread at a fixed rate and render interpolated snapshots,
+     *                        false to step it once per rendered frame.
+     */
+    public Main(boolean asyncSimulation) {
+        this.asyncSimulation = asyncSimulation;
+    }
+
     /**
      * Initializes the game or simulation engine, camera, font, and input processor.
      */
@@ -37,8 +73,12 @@ public class Main implements ApplicationListener {
     public void create () {
         if (Gdx.graphics.isGL30Available()) Gdx.graphics.getGL30().glEnable(GL30.GL_ARRAY_BUFFER);
         Gdx.gl.glLineWidth(1);
-        engine = new Engine(12000, 16, 4, 60);
+        EngineConfig config = new EngineConfig(12000, 16, 4, 60);
+        config.registerMBean = Gdx.app.getType() == ApplicationType.Desktop; // JMX only exists on desktop JVMs.
+        engine = new Engine(config);
         modelBatch = new ModelBatch();
+        particleRenderer = new ParticleRenderer(engine);
+        treeRenderer = new OctreeRenderer();
         
         camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         camera.position.set(60f, 0, 0);
@@ -58,6 +98,11 @@ public class Main implements ApplicationListener {
         showMemoryUsage = true;
         showParticleCount = true;
         paused = false;
+
+        if (asyncSimulation) {
+            simulation = new SimulationThread(engine);
+            simulation.start();
+        }
     }
 
     /**
@@ -99,28 +144,65 @@ public class Main implements ApplicationListener {
         Gdx.gl.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         Gdx.gl.glClear(GL30.GL_COLOR_BUFFER_BIT | GL30.GL_DEPTH_BUFFER_BIT);
         
-        if(!paused) {
-            engine.addParticles(loop);
-            engine.update();
-        }        
-        
+        int particleCount;
         modelBatch.begin(camera);        
 
-        if(renderTree) engine.renderTree(modelBatch);
-        if(renderParticles) engine.renderParticles(modelBatch);
+        if (simulation != null) {
+            // The tree is restructured by the simulation thread, only the published snapshot may be read here.
+            SnapshotBuffer.Snapshot snapshot = simulation.snapshots.acquire();
+            if(renderParticles) particleRenderer.render(modelBatch, snapshot, snapshot.alpha(System.nanoTime()));
+            particleCount = snapshot.count;
+        } else {
+            if(!paused) {
+                engine.addParticles(loop);
+                engine.update();
+            }        
+            if(renderTree && engine.tree != null) treeRenderer.render(modelBatch, engine.tree);
+            if(renderParticles) particleRenderer.render(modelBatch);
+            particleCount = engine.getParticleCount();
+        }
     
         modelBatch.end();
         
         spriteBatch.begin();
         if(showMemoryUsage) font.draw(spriteBatch, "MEMORY USAGE: " + getMemoryUsage() + "mb", 10, Gdx.graphics.getHeight() - 10);
-        if(showParticleCount) font.draw(spriteBatch, "PARTICLES: " + engine.tree.countParticles(engine.tree.root), 10, Gdx.graphics.getHeight() - 25);
+        if(showParticleCount) font.draw(spriteBatch, "PARTICLES: " + particleCount, 10, Gdx.graphics.getHeight() - 25);
         if(showThreads) font.draw(spriteBatch, "THREADS: " + getThreads(), 10, Gdx.graphics.getHeight() - 40);
         if(showFPS) font.draw(spriteBatch, "FPS: " + Gdx.graphics.getFramesPerSecond(), 10, Gdx.graphics.getHeight() - 55);
+        if(showPhaseStats) drawPhaseStats(Gdx.graphics.getHeight() - 85);
         if(paused) font.draw(spriteBatch, "PAUSED", Gdx.graphics.getWidth() / 2 - font.getBounds("PAUSED").width / 2, Gdx.graphics.getHeight() / 2);
         spriteBatch.end();
         loop++;
     }
 
+    /**
+     * Draws the latency of every phase and the work counters per substep over the last second.
+     * The statistics are captured once per second, so the overlay costs nothing in between.
+     * 
+     * @param top the y-coordinate of the first line.
+     */
+    private void drawPhaseStats(float top) {
+        long now = System.nanoTime();
+        if (now - statsCapturedNanos >= 1_000_000_000L) {
+            statsTotal.capture(engine);
+            statsWindow.copyFrom(statsTotal).subtract(statsBaseline);
+            statsBaseline.copyFrom(statsTotal);
+            statsCapturedNanos = now;
+        }
+
+        float y = top;
+        for (SimulationPhase phase : SimulationPhase.values()) {
+            if (statsWindow.getHistogram(phase).getCount() == 0) continue;
+            font.draw(spriteBatch, statsWindow.formatPhase(phase), 10, y);
+            y -= 15;
+        }
+        long substeps = Math.max(1, statsWindow.getSubsteps());
+        for (EngineCounter counter : EngineCounter.values()) {
+            font.draw(spriteBatch, counter + " / SUBSTEP: " + statsWindow.getCounter(counter) / substeps, 10, y);
+            y -= 15;
+        }
+    }
+
     /**
      * Pauses the application (not implemented in this example).
      */
@@ -140,9 +222,10 @@ public class Main implements ApplicationListener {
      */
     @Override
     public void dispose () {
-        engine.tree.executor.shutdown();
-        engine.disposeParticles();
-        engine.disposeTree();
+        if (simulation != null) simulation.shutdown();
+        engine.dispose();
+        particleRenderer.dispose();
+        treeRenderer.dispose();
         modelBatch.dispose();
     }
 
@@ -174,10 +257,14 @@ public class Main implements ApplicationListener {
 			switch (keycode) {
 				case Input.Keys.P: 
 					paused = !paused; // Toggles the paused state of the simulation.
+					if (simulation != null) simulation.setPaused(paused);
 					break;
 				case Input.Keys.T: 
 					renderTree = !renderTree; // Toggles the rendering of the tree.
 					break;
+				case Input.Keys.H: 
+					showPhaseStats = !showPhaseStats; // Toggles the phase latency overlay.
+					break;
 				case Input.Keys.ESCAPE: 
 					Gdx.app.exit(); // Exits the application when ESC is pressed.
 					break;
@@ -0,0 +1,101 @@
+package com.moniev.verlet.core.Render;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.utils.Array;
+import com.moniev.verlet.core.MainEngine.Octree;
+import com.moniev.verlet.core.MainEngine.OctreeNode;
+
+/**
+ * Draws the leaves of an {@link Octree} as green wireframe boxes.
+ * A single unit cube model is shared by every box, each leaf gets a pooled instance scaled to its bounds,
+ * so the tree itself keeps no graphics resources and nodes cost nothing to create or merge.
+ */
+public class OctreeRenderer {
+
+    private final Model boxModel;  // Wireframe cube of edge 1 centered on the origin
+    private final Array<ModelInstance> boxes;  // Pooled instances, one per leaf drawn in the current frame
+    private int used;  // Number of pooled instances used by the current frame
+
+    /**
+     * Creates the wireframe model. Must be called from the render thread.
+     */
+    public OctreeRenderer() {
+        this.boxes = new Array<>();
+        this.boxModel = createWireframeModel();
+    }
+
+    /**
+     * Creates a wireframe cube of edge 1 centered on the origin.
+     *
+     * @return The 3D model of one box.
+     */
+    private static Model createWireframeModel() {
+        float h = 0.5f;
+        float[][] vertices = {
+            {-h, -h, -h}, {h, -h, -h}, {h, h, -h}, {-h, h, -h},
+            {-h, -h, h}, {h, -h, h}, {h, h, h}, {-h, h, h}
+        };
+        int[][] edges = {
+            {0, 1}, {1, 2}, {2, 3}, {3, 0},
+            {4, 5}, {5, 6}, {6, 7}, {7, 4},
+            {0, 4}, {1, 5}, {2, 6}, {3, 7}
+        };
+
+        ModelBuilder modelBuilder = new ModelBuilder();
+        modelBuilder.begin();
+        MeshPartBuilder builder = modelBuilder.part("line", 1, 3, new Material());
+        builder.setColor(Color.GREEN);
+        for (int[] edge : edges) {
+            float[] a = vertices[edge[0]], b = vertices[edge[1]];
+            builder.line(a[0], a[1], a[2], b[0], b[1], b[2]);
+        }
+        return modelBuilder.end();
+    }
+
+    /**
+     * Renders every leaf of the tree. The tree is read directly, so it must not be restructured concurrently.
+     *
+     * @param modelBatch The ModelBatch used for rendering.
+     * @param tree The tree to draw.
+     */
+    public void render(ModelBatch modelBatch, Octree tree) {
+        used = 0;
+        render(modelBatch, tree.root);
+    }
+
+    /**
+     * Renders the leaves of a subtree.
+     *
+     * @param modelBatch The ModelBatch used for rendering.
+     * @param node The root of the subtree.
+     */
+    private void render(ModelBatch modelBatch, OctreeNode node) {
+        if (node == null) return;
+
+        if (node.isLeaf) {
+            if (used == boxes.size) boxes.add(new ModelInstance(boxModel));
+            ModelInstance box = boxes.get(used++);
+            box.transform.setToTranslationAndScaling(
+                node.center.x, node.center.y, node.center.z,
+                node.maxX - node.minX, node.maxY - node.minY, node.maxZ - node.minZ);
+            modelBatch.render(box);
+        } else {
+            for (OctreeNode child : node.children) {
+                render(modelBatch, child);
+            }
+        }
+    }
+
+    /**
+     * Releases the wireframe model.
+     */
+    public void dispose() {
+        boxModel.dispose();
+    }
+}
@@ -0,0 +1,116 @@
+package com.moniev.verlet.core.Render;
+
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.utils.Array;
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.SnapshotBuffer;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Draws the particles of an {@link Engine} as spheres, reading their positions from the particle store or from a published snapshot.
+ * All graphics resources live here, one shared sphere model and one instance per particle, created on the render thread
+ * the first time a particle is drawn and colored by the time it was spawned.
+ */
+public class ParticleRenderer {
+
+    public final Engine engine;  // Engine whose particles are drawn
+    private final Model sharedModel;  // Shared sphere model of every particle
+    private final Array<ModelInstance> particleInstances;  // Model instances used to render the particles, indexed by particle handle
+
+    /**
+     * Creates the sphere model of the engine's particles. Must be called from the render thread.
+     *
+     * @param engine The engine whose particles are drawn.
+     */
+    public ParticleRenderer(Engine engine) {
+        this.engine = engine;
+        this.particleInstances = new Array<>(engine.particlesLimit);
+        float diameter = 2 * engine.particleRadius;
+        this.sharedModel = new ModelBuilder().createSphere(
+            diameter,
+            diameter,
+            diameter,
+            64,
+            64,
+            new Material(),
+            Usage.Position | Usage.Normal);
+    }
+
+    /**
+     * Calculates the color of a particle spawned at the given simulation time.
+     *
+     * @param time The simulation time at which the particle was spawned.
+     * @return A Material object with the calculated diffuse color for the particle.
+     */
+    public static Material calculateColor(float time) {
+        float r = (float)Math.sin((double)time / 4);  // Red component based on time
+        float g = (float)Math.sin((double)time / 4 + 0.33f * 2.0f * Math.PI);  // Green component based on time
+        float b = (float)Math.sin((double)time / 4 + 0.66f * 2.0f * Math.PI);  // Blue component based on time
+        float a = 1f;  // Alpha component is always 1 for full opacity
+        return new Material(ColorAttribute.createDiffuse(r, g, b, a));  // Return the material with the calculated color
+    }
+
+    /**
+     * Renders every particle at its current position in the engine's store.
+     * The store is read directly, so the engine must not be stepped concurrently.
+     *
+     * @param modelBatch The ModelBatch used for rendering the particles.
+     */
+    public void render(ModelBatch modelBatch) {
+        ParticleStore store = engine.store;
+        int count = store.size();
+        ensureInstances(count);
+        for(int i = 0; i < count; i++) {
+            ModelInstance instance = particleInstances.get(i);
+            instance.transform.setToTranslation(store.x[i], store.y[i], store.z[i]);
+            modelBatch.render(instance);
+        }
+    }
+
+    /**
+     * Renders the particles of a published snapshot, interpolated between the snapshot's previous and current positions.
+     * Only the snapshot is read, so this is safe while a {@link com.moniev.verlet.core.MainEngine.SimulationThread} steps the engine.
+     *
+     * @param modelBatch The ModelBatch used for rendering the particles.
+     * @param snapshot The snapshot to render.
+     * @param alpha How far to interpolate from the previous positions (0) to the current ones (1).
+     */
+    public void render(ModelBatch modelBatch, SnapshotBuffer.Snapshot snapshot, float alpha) {
+        int count = snapshot.count;
+        ensureInstances(count);
+        for(int i = 0; i < count; i++) {
+            float x = snapshot.prevX[i] + (snapshot.x[i] - snapshot.prevX[i]) * alpha;
+            float y = snapshot.prevY[i] + (snapshot.y[i] - snapshot.prevY[i]) * alpha;
+            float z = snapshot.prevZ[i] + (snapshot.z[i] - snapshot.prevZ[i]) * alpha;
+            ModelInstance instance = particleInstances.get(i);
+            instance.transform.setToTranslation(x, y, z);
+            modelBatch.render(instance);
+        }
+    }
+
+    /**
+     * Creates the model instances of particles spawned since the last render call.
+     *
+     * @param count Number of particles that need an instance.
+     */
+    private void ensureInstances(int count) {
+        for(int i = particleInstances.size; i < count; i++) {
+            ModelInstance instance = new ModelInstance(sharedModel);
+            instance.materials.get(0).set(calculateColor(engine.getSpawnTime(i)));
+            particleInstances.add(instance);
+        }
+    }
+
+    /**
+     * Releases the sphere model.
+     */
+    public void dispose() {
+        sharedModel.dispose();
+    }
+}
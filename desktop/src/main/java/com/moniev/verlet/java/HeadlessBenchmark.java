@@ -0,0 +1,168 @@
+package com.moniev.verlet.java;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.EngineConfig;
+import com.moniev.verlet.core.MainEngine.ExecutionBackend;
+import com.moniev.verlet.core.MainEngine.ForkJoinBackend;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * Measures the simulation throughput without opening a window.
+ * Builds an {@link Engine}, spawns every particle up front, runs a number of frames and prints the steps and
+ * particle updates per second together with the frame latency percentiles, optionally for several thread counts.
+ *
+ * <pre>
+ * HeadlessBenchmark [--particles 12000] [--size 16] [--substeps 4] [--rate 60]
+ *                   [--frames 600] [--warmup 120] [--spawn spiral|lattice] [--threads 1,2,4,8]
+ * </pre>
+ */
+public class HeadlessBenchmark {
+
+	private int particles = 12000; // Number of particles spawned before the first frame.
+	private int size = 16; // Half extent of the world.
+	private int subSteps = 4; // Substeps of every frame.
+	private float rate = 60; // Frame rate, sets the time step.
+	private int frames = 600; // Measured frames of every run.
+	private int warmup = 120; // Frames run before measuring, lets the JIT and the scene settle.
+	private String spawn = "spiral"; // Initial arrangement, the spawn spiral or a lattice on the floor.
+	private int[] threads = { Runtime.getRuntime().availableProcessors() }; // Thread counts to run, one run each.
+
+	public static void main (String[] args) {
+		HeadlessBenchmark benchmark = new HeadlessBenchmark();
+		benchmark.parse(args);
+		benchmark.run();
+	}
+
+	/**
+	 * Reads the options of the command line.
+	 *
+	 * @param args The command line.
+	 */
+	private void parse (String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String option = args[i];
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+			String value = args[++i];
+			switch (option) {
+				case "--particles": particles = Integer.parseInt(value); break;
+				case "--size": size = Integer.parseInt(value); break;
+				case "--substeps": subSteps = Integer.parseInt(value); break;
+				case "--rate": rate = Float.parseFloat(value); break;
+				case "--frames": frames = Integer.parseInt(value); break;
+				case "--warmup": warmup = Integer.parseInt(value); break;
+				case "--spawn": spawn = value; break;
+				case "--threads": threads = parseThreads(value); break;
+				default: throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+		if (!spawn.equals("spiral") && !spawn.equals("lattice")) throw new IllegalArgumentException("Unknown spawn " + spawn);
+		int minParticles = spawn.equals("spiral") ? 2 : 1; // The spiral spreads the particles over particlesLimit - 1 steps
+		if (particles < minParticles) throw new IllegalArgumentException("--particles must be at least " + minParticles + " with the " + spawn + " spawn, got " + particles);
+		if (size < 1) throw new IllegalArgumentException("--size must be at least 1, got " + size);
+		if (frames < 1) throw new IllegalArgumentException("--frames must be at least 1, got " + frames);
+		if (warmup < 0) throw new IllegalArgumentException("--warmup must not be negative, got " + warmup);
+		if (subSteps < 1) throw new IllegalArgumentException("--substeps must be at least 1, got " + subSteps);
+		if (!(rate > 0)) throw new IllegalArgumentException("--rate must be positive, got " + rate);
+	}
+
+	/**
+	 * Reads a comma separated list of thread counts.
+	 *
+	 * @param value The value of the option.
+	 * @return The thread counts, each at least 1.
+	 */
+	private static int[] parseThreads (String value) {
+		String[] entries = value.split(",", -1);
+		int[] counts = new int[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			String entry = entries[i].trim();
+			if (entry.isEmpty()) throw new IllegalArgumentException("Empty entry in --threads " + value);
+			counts[i] = Integer.parseInt(entry);
+			if (counts[i] < 1) throw new IllegalArgumentException("--threads entries must be at least 1, got " + counts[i]);
+		}
+		return counts;
+	}
+
+	/**
+	 * Runs the benchmark once for every thread count and prints one line per run.
+	 */
+	private void run () {
+		System.out.printf(Locale.ROOT, "particles %d, size %d, substeps %d, rate %.0f, frames %d (+%d warmup), spawn %s%n",
+			particles, size, subSteps, rate, frames, warmup, spawn);
+		System.out.printf(Locale.ROOT, "%8s %12s %18s %10s %10s %10s%n", "threads", "steps/s", "particle-updates/s", "p50 ms", "p99 ms", "max ms");
+
+		for (int threadCount : threads) {
+			ExecutionBackend backend = new ForkJoinBackend(threadCount);
+			EngineConfig config = new EngineConfig(particles, size, subSteps, rate);
+			config.threads = threadCount;
+			Engine engine = new Engine(config, backend);
+			try {
+				populate(engine);
+				for (int frame = 0; frame < warmup; frame++) engine.update();
+
+				long[] latencies = new long[frames];
+				long start = System.nanoTime();
+				for (int frame = 0; frame < frames; frame++) {
+					long frameStart = System.nanoTime();
+					engine.update();
+					latencies[frame] = System.nanoTime() - frameStart;
+				}
+				double seconds = (System.nanoTime() - start) / 1e9;
+
+				Arrays.sort(latencies);
+				double steps = (double) frames * subSteps / seconds;
+				System.out.printf(Locale.ROOT, "%8d %12.1f %18.0f %10.3f %10.3f %10.3f%n",
+					threadCount, steps, steps * engine.getParticleCount(),
+					percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[frames - 1] / 1e6);
+			} finally {
+				engine.dispose();
+				backend.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Spawns every particle at rest, on the spawn spiral of the engine or on a lattice resting on the floor.
+	 *
+	 * @param engine The empty engine.
+	 */
+	private void populate (Engine engine) {
+		float radius = engine.particleRadius;
+		if (spawn.equals("spiral")) {
+			Vector position = new Vector(0, 0, 0);
+			float limit = size - radius;
+			for (int i = 0; i < particles; i++) {
+				engine.calculateCoordinates(i, position);
+				engine.addParticle(clamp(position.x, limit), clamp(position.y, limit), clamp(position.z, limit), 0, 0, 0);
+			}
+		} else {
+			float spacing = 2 * radius * 1.02f;
+			float low = -size + radius;
+			int row = Math.max(1, (int) ((2 * (size - radius)) / spacing) + 1);
+			for (int i = 0; i < particles; i++) {
+				int column = i % row, depth = (i / row) % row, layer = i / (row * row);
+				engine.addParticle(low + column * spacing, low + layer * spacing, low + depth * spacing, 0, 0, 0);
+			}
+		}
+		engine.broadPhase.rebin();
+	}
+
+	private static float clamp (float value, float limit) {
+		return Math.max(-limit, Math.min(limit, value));
+	}
+
+	/**
+	 * Returns a percentile of sorted latencies, in milliseconds.
+	 *
+	 * @param sorted The latencies in nanoseconds, in ascending order.
+	 * @param fraction The percentile, between 0 and 1.
+	 * @return The latency at the percentile.
+	 */
+	private static double percentile (long[] sorted, double fraction) {
+		int index = (int) Math.ceil(fraction * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+	}
+}
@@ -0,0 +1,76 @@
+package com.moniev.verlet.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.Octree;
+import com.moniev.verlet.core.MainEngine.SimulationPhase;
+import com.moniev.verlet.core.Telemetry.EventRecorder;
+
+/**
+ * {@link EventRecorder} emitting JDK Flight Recorder events.
+ * An event is only created while a recording has its type enabled, which keeps the substep free of allocations otherwise.
+ * Loaded by {@link com.moniev.verlet.core.Telemetry.FlightRecorderEvents} when this module is on the classpath.
+ */
+public class JfrEventRecorder implements EventRecorder {
+
+    private final EventType phaseType;  // Type of the phase events, tells whether a recording wants them
+    private final EventType substepType;  // Type of the substep events, tells whether a recording wants them
+
+    /**
+     * Registers the event types.
+     *
+     * @throws IllegalStateException if the running JVM has Flight Recorder disabled.
+     */
+    public JfrEventRecorder() {
+        if (!FlightRecorder.isAvailable()) throw new IllegalStateException("Flight Recorder is not available");
+        this.phaseType = EventType.getEventType(PhaseEvent.class);
+        this.substepType = EventType.getEventType(SubstepEvent.class);
+    }
+
+    @Override
+    public Object beginPhase() {
+        if (!phaseType.isEnabled()) return null;
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endPhase(Object token, SimulationPhase phase) {
+        PhaseEvent event = (PhaseEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginSubstep() {
+        if (!substepType.isEnabled()) return null;
+        SubstepEvent event = new SubstepEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSubstep(Object token, Engine engine) {
+        SubstepEvent event = (SubstepEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.substep = engine.getSubstepCount();
+            event.particles = engine.getParticleCount();
+            event.contacts = engine.getLastContacts();
+            event.particlesRebinned = engine.domain == null ? engine.broadPhase.getLastRebinned() : 0;
+            Octree tree = engine.tree;
+            if (tree != null && engine.broadPhase == tree) {
+                event.pairsTested = tree.getInnerPairsTested() + tree.getOuterPairsTested();
+                event.leaves = tree.getLeafCount();
+                event.treeDepth = tree.totalDepth;
+            }
+            event.commit();
+        }
+    }
+}
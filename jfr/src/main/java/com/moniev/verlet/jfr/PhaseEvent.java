@@ -0,0 +1,23 @@
+package com.moniev.verlet.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one run of a {@link com.moniev.verlet.core.MainEngine.SimulationPhase}
+ * on the thread stepping the engine, nested within the {@link SubstepEvent} of its substep.
+ */
+@Name("com.moniev.verlet.Phase")
+@Label("Simulation Phase")
+@Category({"Verlet", "Engine"})
+@Description("One phase of a simulation substep")
+@StackTrace(false)
+class PhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;  // Name of the phase
+}
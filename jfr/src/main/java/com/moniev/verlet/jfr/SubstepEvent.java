@@ -0,0 +1,41 @@
+package com.moniev.verlet.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one substep of an {@link com.moniev.verlet.core.MainEngine.Engine},
+ * with the work it did so long substeps can be told apart from substeps with more contacts.
+ */
+@Name("com.moniev.verlet.Substep")
+@Label("Simulation Substep")
+@Category({"Verlet", "Engine"})
+@Description("One substep of the simulation with its work counters")
+@StackTrace(false)
+class SubstepEvent extends Event {
+
+    @Label("Substep")
+    long substep;  // Number of the substep since the engine was created
+
+    @Label("Particles")
+    int particles;  // Particles in the simulation
+
+    @Label("Contacts")
+    int contacts;  // Contacts found by the substep
+
+    @Label("Pairs Tested")
+    long pairsTested;  // Particle pairs tested by the octree, 0 for other broad phases
+
+    @Label("Particles Rebinned")
+    int particlesRebinned;  // Particles re-binned by the broad phase, 0 when the rebin was skipped
+
+    @Label("Leaves")
+    int leaves;  // Leaves of the octree, 0 for other broad phases
+
+    @Label("Tree Depth")
+    int treeDepth;  // Depth of the octree, 0 for other broad phases
+}
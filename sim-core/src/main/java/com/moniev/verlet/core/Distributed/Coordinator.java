@@ -0,0 +1,313 @@
+package com.moniev.verlet.core.Distributed;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.moniev.verlet.core.MainEngine.SlabDecomposition;
+
+/**
+ * Drives a simulation split over several {@link RegionWorker} processes, each owning one slab of the world along x.
+ * The coordinator is the barrier of every substep: it waits for the exchange of every worker, forwards the migrant and
+ * ghost records to their destinations without decoding them, moves the slab faces when the particle counts drift apart
+ * and keeps the global statistics of the run.
+ */
+public class Coordinator {
+
+    public static final int DEFAULT_PORT = 7341;  // Port used when none is given
+    private static final float MAX_IMBALANCE = 1.25f;  // Ratio of the largest region to the average region triggering a rebalance
+
+    public final int regions;  // Number of worker processes
+    public final int particlesPerRegion;  // Particles spawned by every worker
+    public final int steps;  // Number of substeps of the run
+    public final float subStepDt;  // Time step of one substep
+    public final float particleRadius;  // Radius of every particle
+    public final float size;  // Half extent of the cubic world, centered on the origin
+    public int reportInterval = 100;  // Substeps between two printed reports, 0 disables them
+
+    private final ServerSocketChannel server;  // Socket accepting the workers
+    private final SocketChannel[] workers;  // Connection of every region
+    private final ByteBuffer[] frames;  // Last frame received from every region
+    private final int[] owned;  // Owned particles reported by every region
+    private final int[] histogram;  // Sum of the histograms of the regions
+    private final float[] faces;  // Faces of the regions along x
+    private final ArrayList<ArrayList<ByteBuffer>> migrantSlices;  // Received migrant records, per destination region
+    private final ArrayList<ArrayList<ByteBuffer>> ghostSlices;  // Received ghost records, per destination region
+    private final int[] migrantCounts, ghostCounts;  // Received record counts, per destination region
+    private final ByteBuffer header;  // Header of the outgoing deliveries
+
+    private long totalParticles;  // Particles in the whole world after the last exchange
+    private long totalMigrants, totalGhosts;  // Records forwarded since the start of the run
+    private long barrierNanos;  // Time spent waiting for the slowest region since the start of the run
+    private int rebalances;  // Number of times the faces were moved
+
+    /**
+     * Binds the coordinator to a loopback port.
+     *
+     * @param port The port to listen on, 0 for any free port.
+     * @param regions The number of worker processes.
+     * @param particlesPerRegion The particles spawned by every worker.
+     * @param steps The number of substeps of the run.
+     * @param subStepDt The time step of one substep.
+     * @param particleRadius The radius of every particle.
+     * @param size The half extent of the world.
+     * @throws IOException If the port cannot be bound.
+     */
+    public Coordinator(int port, int regions, int particlesPerRegion, int steps, float subStepDt, float particleRadius, float size) throws IOException {
+        this.regions = regions;
+        this.particlesPerRegion = particlesPerRegion;
+        this.steps = steps;
+        this.subStepDt = subStepDt;
+        this.particleRadius = particleRadius;
+        this.size = size;
+
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress("127.0.0.1", port));
+        this.workers = new SocketChannel[regions];
+        this.frames = new ByteBuffer[regions];
+        this.owned = new int[regions];
+        this.histogram = new int[Protocol.HISTOGRAM_BINS];
+        this.faces = new float[regions + 1];
+        for (int r = 0; r <= regions; r++) {
+            faces[r] = -size + 2 * size * r / regions;
+        }
+        this.migrantSlices = new ArrayList<>();
+        this.ghostSlices = new ArrayList<>();
+        for (int r = 0; r < regions; r++) {
+            migrantSlices.add(new ArrayList<>());
+            ghostSlices.add(new ArrayList<>());
+            frames[r] = Protocol.allocate(1 << 16);
+        }
+        this.migrantCounts = new int[regions];
+        this.ghostCounts = new int[regions];
+        this.header = Protocol.allocate(64 + 4 * (regions + 1));
+    }
+
+    /**
+     * Returns the port the coordinator listens on.
+     *
+     * @return The bound port.
+     * @throws IOException If the socket is closed.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Accepts every worker, assigns the regions in connection order and runs every substep, then ends the run.
+     *
+     * @throws IOException If a connection fails.
+     */
+    public void run() throws IOException {
+        try {
+            for (int r = 0; r < regions; r++) {
+                SocketChannel channel = server.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                frames[r] = Protocol.readFrame(channel, frames[r]);
+                if (frames[r].get() != Protocol.HELLO) throw new IOException("Expected HELLO from region " + r);
+                workers[r] = channel;
+                sendAssign(r);
+            }
+
+            long start = System.nanoTime();
+            for (int step = 0; step < steps; step++) {
+                long waitStart = System.nanoTime();
+                for (int r = 0; r < regions; r++) {
+                    receiveExchange(r);
+                }
+                barrierNanos += System.nanoTime() - waitStart;
+
+                if (step % Protocol.REBALANCE_INTERVAL == 0) rebalance();
+                for (int r = 0; r < regions; r++) {
+                    sendDeliver(r, step);
+                }
+
+                if (reportInterval > 0 && (step + 1) % reportInterval == 0) {
+                    report(step + 1, System.nanoTime() - start);
+                }
+            }
+
+            for (SocketChannel worker : workers) {
+                header.clear();
+                Protocol.beginFrame(header, Protocol.SHUTDOWN);
+                Protocol.endFrame(header);
+                Protocol.writeFully(worker, header);
+            }
+        } finally {
+            for (SocketChannel worker : workers) {
+                if (worker != null) worker.close();
+            }
+            server.close();
+        }
+    }
+
+    /**
+     * Sends a worker its region and the scene settings.
+     *
+     * @param region The region of the worker.
+     * @throws IOException If the connection fails.
+     */
+    private void sendAssign(int region) throws IOException {
+        header.clear();
+        Protocol.beginFrame(header, Protocol.ASSIGN);
+        header.putInt(region).putInt(regions).putInt(particlesPerRegion).putLong(42L).putInt(steps);
+        header.putFloat(subStepDt).putFloat(particleRadius);
+        header.putFloat(0).putFloat(0).putFloat(0).putFloat(size);
+        for (float face : faces) header.putFloat(face);
+        Protocol.endFrame(header);
+        Protocol.writeFully(workers[region], header);
+    }
+
+    /**
+     * Reads the exchange of a worker and records read-only views of its sections by destination.
+     *
+     * @param region The region of the worker.
+     * @throws IOException If the connection fails or the frame is not an exchange.
+     */
+    private void receiveExchange(int region) throws IOException {
+        ByteBuffer frame = Protocol.readFrame(workers[region], frames[region]);
+        frames[region] = frame;
+        if (frame.get() != Protocol.EXCHANGE) throw new IOException("Expected EXCHANGE from region " + region);
+
+        frame.getInt();
+        owned[region] = frame.getInt();
+        if (frame.get() != 0) {
+            for (int bin = 0; bin < Protocol.HISTOGRAM_BINS; bin++) {
+                histogram[bin] += frame.getInt();
+            }
+        }
+
+        int sections = frame.getInt();
+        for (int s = 0; s < sections; s++) {
+            int destination = frame.getInt();
+            int migrants = frame.getInt();
+            int ghosts = frame.getInt();
+            migrantSlices.get(destination).add(slice(frame, migrants * Protocol.RECORD_BYTES));
+            ghostSlices.get(destination).add(slice(frame, ghosts * Protocol.RECORD_BYTES));
+            migrantCounts[destination] += migrants;
+            ghostCounts[destination] += ghosts;
+        }
+    }
+
+    /**
+     * Returns a view of the next bytes of a buffer and skips them.
+     *
+     * @param buffer The buffer.
+     * @param length The number of bytes.
+     * @return The view, sharing the content of the buffer.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(buffer.position() + length);
+        buffer.position(buffer.position() + length);
+        return view;
+    }
+
+    /**
+     * Moves the faces on the quantiles of the summed histograms if the regions are unbalanced, and clears the histograms.
+     */
+    private void rebalance() {
+        int total = 0, largest = 0;
+        for (int count : owned) {
+            total += count;
+            largest = Math.max(largest, count);
+        }
+        if (total >= regions * 2 && largest * regions > MAX_IMBALANCE * total) {
+            SlabDecomposition.placeFaces(histogram, -size, 2 * size, faces);
+            rebalances++;
+        }
+        Arrays.fill(histogram, 0);
+    }
+
+    /**
+     * Forwards the migrants and ghosts received for a region with one gathering write, together with the current faces.
+     *
+     * @param region The destination region.
+     * @param step The index of the substep.
+     * @throws IOException If the connection fails.
+     */
+    private void sendDeliver(int region, int step) throws IOException {
+        ArrayList<ByteBuffer> migrants = migrantSlices.get(region);
+        ArrayList<ByteBuffer> ghosts = ghostSlices.get(region);
+        if (region == 0) {
+            totalParticles = 0;
+            for (int r = 0; r < regions; r++) totalParticles += owned[r] + migrantCounts[r];
+        }
+
+        header.clear();
+        Protocol.beginFrame(header, Protocol.DELIVER);
+        header.putInt(step);
+        header.putLong(totalParticles);
+        for (float face : faces) header.putFloat(face);
+        header.putInt(migrantCounts[region]);
+        header.putInt(ghostCounts[region]);
+        Protocol.endFrame(header, (long) (migrantCounts[region] + ghostCounts[region]) * Protocol.RECORD_BYTES);
+
+        ByteBuffer[] buffers = new ByteBuffer[1 + migrants.size() + ghosts.size()];
+        buffers[0] = header;
+        int next = 1;
+        for (ByteBuffer slice : migrants) buffers[next++] = slice;
+        for (ByteBuffer slice : ghosts) buffers[next++] = slice;
+        Protocol.writeFully(workers[region], buffers);
+
+        totalMigrants += migrantCounts[region];
+        totalGhosts += ghostCounts[region];
+        migrants.clear();
+        ghosts.clear();
+        migrantCounts[region] = 0;
+        ghostCounts[region] = 0;
+    }
+
+    /**
+     * Prints the global statistics of the run.
+     *
+     * @param step The number of completed substeps.
+     * @param elapsedNanos The time since the first substep.
+     */
+    private void report(int step, long elapsedNanos) {
+        int largest = 0;
+        for (int count : owned) largest = Math.max(largest, count);
+        float average = totalParticles / (float) regions;
+        System.out.printf("[step %d][particles %d][imbalance %.2f][migrants %d][ghosts %d][rebalances %d][%.3f ms/step][barrier %.3f ms/step]\n",
+            step, totalParticles, average > 0 ? largest / average : 1f, totalMigrants, totalGhosts, rebalances,
+            elapsedNanos / 1e6 / step, barrierNanos / 1e6 / step);
+    }
+
+    /**
+     * Returns the number of particles in the whole world after the last exchange.
+     *
+     * @return The global particle count.
+     */
+    public long getTotalParticles() {
+        return totalParticles;
+    }
+
+    /**
+     * Returns how many times the faces were moved.
+     *
+     * @return The rebalance count.
+     */
+    public int getRebalances() {
+        return rebalances;
+    }
+
+    /**
+     * Starts a coordinator process: {@code Coordinator [regions] [particlesPerRegion] [steps] [port]}.
+     * The workers are started separately with {@link RegionWorker#main(String[])}, or all at once with {@link LocalCluster}.
+     *
+     * @param args The number of regions, particles per region, substeps and the port.
+     * @throws IOException If a connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        int regions = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int particles = args.length > 1 ? Integer.parseInt(args[1]) : 6000;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_PORT;
+        new Coordinator(port, regions, particles, steps, 1f / 240, 0.5f, 16).run();
+    }
+}
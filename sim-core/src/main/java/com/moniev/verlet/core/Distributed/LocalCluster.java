@@ -0,0 +1,46 @@
+package com.moniev.verlet.core.Distributed;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Runs a distributed simulation on one machine: a {@link Coordinator} in this JVM and one {@link RegionWorker}
+ * JVM per region, started with the class path of this process and connected over loopback TCP.
+ */
+public class LocalCluster {
+
+    /**
+     * Starts the cluster: {@code LocalCluster [regions] [particlesPerRegion] [steps]}.
+     *
+     * @param args The number of regions, particles per region and substeps.
+     * @throws IOException If a worker cannot be started or a connection fails.
+     * @throws InterruptedException If interrupted while waiting for the workers.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int regions = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int particles = args.length > 1 ? Integer.parseInt(args[1]) : 6000;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / regions);
+
+        Coordinator coordinator = new Coordinator(0, regions, particles, steps, 1f / 240, 0.5f, 16);
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("java.class.path");
+
+        ArrayList<Process> processes = new ArrayList<>();
+        for (int r = 0; r < regions; r++) {
+            processes.add(new ProcessBuilder(java, "-cp", classPath, RegionWorker.class.getName(),
+                "127.0.0.1", Integer.toString(coordinator.getPort()), Integer.toString(threads))
+                .inheritIO()
+                .start());
+        }
+
+        try {
+            coordinator.run();
+        } finally {
+            for (Process process : processes) {
+                if (process.waitFor() != 0) System.out.println("Worker exited with " + process.exitValue());
+            }
+        }
+    }
+}
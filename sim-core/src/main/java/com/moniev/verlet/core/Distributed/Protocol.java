@@ -0,0 +1,194 @@
+package com.moniev.verlet.core.Distributed;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Binary protocol between the {@link Coordinator} and its {@link RegionWorker}s.
+ * Every message is a frame made of its length in bytes, excluding the length itself, a type byte and a payload.
+ * All values are little endian. Particles travel as fixed records of eight floats:
+ * position, previous position, radius and mass.
+ *
+ * <pre>
+ * HELLO    worker to coordinator, empty
+ * ASSIGN   region, regionCount, particles, seed, steps, subStepDt, radius, center x y z, size, faces[regionCount + 1]
+ * EXCHANGE step, owned, histogram flag, [histogram bins], sectionCount, sections of
+ *          destination, migrantCount, ghostCount, migrant records, ghost records
+ * DELIVER  step, totalParticles, faces[regionCount + 1], migrantCount, ghostCount, migrant records, ghost records
+ * SHUTDOWN empty
+ * </pre>
+ */
+public final class Protocol {
+
+    public static final byte HELLO = 1;  // A worker announces itself
+    public static final byte ASSIGN = 2;  // The coordinator hands a region and the scene settings to a worker
+    public static final byte EXCHANGE = 3;  // A worker sends its migrants and ghosts, sorted by destination region
+    public static final byte DELIVER = 4;  // The coordinator forwards the migrants and ghosts of a region and the current faces
+    public static final byte SHUTDOWN = 5;  // The coordinator ends the run
+
+    public static final int RECORD_BYTES = 8 * 4;  // Size of one particle record
+    public static final int HISTOGRAM_BINS = 256;  // Bins of the x histograms sent for load balancing
+    public static final int REBALANCE_INTERVAL = 16;  // Steps between two histograms, on every step divisible by it
+    public static final int HEADER_BYTES = 4 + 1;  // Frame length and type
+
+    private Protocol() {
+    }
+
+    /**
+     * Allocates a direct little endian buffer.
+     *
+     * @param capacity The capacity in bytes.
+     * @return The buffer.
+     */
+    public static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns a buffer holding at least the given number of additional bytes, copying the content of the given one if it must grow.
+     *
+     * @param buffer The buffer being filled.
+     * @param extra The number of bytes about to be written.
+     * @return The given buffer or a larger copy of it.
+     */
+    public static ByteBuffer ensureRemaining(ByteBuffer buffer, int extra) {
+        if (buffer.remaining() >= extra) return buffer;
+
+        ByteBuffer larger = allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    /**
+     * Starts a frame of the given type, the length is filled in by {@link #endFrame(ByteBuffer)}.
+     *
+     * @param buffer The cleared buffer receiving the frame.
+     * @param type The message type.
+     */
+    public static void beginFrame(ByteBuffer buffer, byte type) {
+        buffer.putInt(0);
+        buffer.put(type);
+    }
+
+    /**
+     * Writes the frame length and flips the buffer for writing to a channel.
+     *
+     * @param buffer The buffer holding one frame from position 0.
+     * @param payloadTail The number of bytes sent after this buffer as part of the same frame.
+     */
+    public static void endFrame(ByteBuffer buffer, long payloadTail) {
+        buffer.putInt(0, (int) (buffer.position() - 4 + payloadTail));
+        buffer.flip();
+    }
+
+    /**
+     * Writes the frame length and flips the buffer for writing to a channel.
+     *
+     * @param buffer The buffer holding one whole frame from position 0.
+     */
+    public static void endFrame(ByteBuffer buffer) {
+        endFrame(buffer, 0);
+    }
+
+    /**
+     * Reads one frame into the given buffer, growing it when needed.
+     * The returned buffer is positioned after the type byte and limited to the end of the frame.
+     *
+     * @param channel The blocking channel to read from.
+     * @param buffer A buffer to reuse.
+     * @return The buffer holding the frame, possibly a new one.
+     * @throws IOException If the channel fails or is closed in the middle of a frame.
+     */
+    public static ByteBuffer readFrame(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(4);
+        readFully(channel, buffer);
+        int length = buffer.getInt(0);
+        if (buffer.capacity() < length + 4) buffer = allocate(length + 4);
+
+        buffer.clear().limit(length + 4).position(4);
+        readFully(channel, buffer);
+        buffer.position(4);
+        return buffer;
+    }
+
+    /**
+     * Reads until the buffer has no remaining space.
+     *
+     * @param channel The blocking channel to read from.
+     * @param buffer The buffer to fill.
+     * @throws IOException If the channel fails or reaches its end.
+     */
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException("Connection closed");
+        }
+    }
+
+    /**
+     * Writes every remaining byte of the buffers with gathering writes, without copying them.
+     *
+     * @param channel The blocking channel to write to.
+     * @param buffers The buffers, written in order.
+     * @throws IOException If the channel fails.
+     */
+    public static void writeFully(SocketChannel channel, ByteBuffer... buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) remaining += buffer.remaining();
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    /**
+     * Appends the record of a particle.
+     *
+     * @param buffer The buffer with room for one record.
+     * @param store The store holding the particle.
+     * @param i The handle of the particle.
+     */
+    public static void putParticle(ByteBuffer buffer, ParticleStore store, int i) {
+        buffer.putFloat(store.x[i]).putFloat(store.y[i]).putFloat(store.z[i]);
+        buffer.putFloat(store.prevX[i]).putFloat(store.prevY[i]).putFloat(store.prevZ[i]);
+        buffer.putFloat(store.radius[i]).putFloat(store.mass[i]);
+    }
+
+    /**
+     * Reads a particle record and adds the particle to the store.
+     *
+     * @param buffer The buffer positioned at a record.
+     * @param store The store receiving the particle.
+     * @return The handle of the new particle.
+     */
+    public static int getParticle(ByteBuffer buffer, ParticleStore store) {
+        float x = buffer.getFloat(), y = buffer.getFloat(), z = buffer.getFloat();
+        float px = buffer.getFloat(), py = buffer.getFloat(), pz = buffer.getFloat();
+        float r = buffer.getFloat(), m = buffer.getFloat();
+        int i = store.add(x, y, z, r, m);
+        store.prevX[i] = px;
+        store.prevY[i] = py;
+        store.prevZ[i] = pz;
+        return i;
+    }
+
+    /**
+     * Returns the region containing the given x coordinate, positions beyond the outer faces belong to the outer regions.
+     *
+     * @param faces The faces of the regions along x.
+     * @param x The coordinate.
+     * @return The index of the region.
+     */
+    public static int regionOf(float[] faces, float x) {
+        int low = 0, high = faces.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (x >= faces[middle]) low = middle; else high = middle - 1;
+        }
+        return low;
+    }
+}
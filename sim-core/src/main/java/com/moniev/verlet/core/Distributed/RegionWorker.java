@@ -0,0 +1,309 @@
+package com.moniev.verlet.core.Distributed;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.moniev.verlet.core.MainEngine.CollisionSolverTask;
+import com.moniev.verlet.core.MainEngine.ContactBuffer;
+import com.moniev.verlet.core.MainEngine.ContactCollector;
+import com.moniev.verlet.core.MainEngine.ExecutionBackend;
+import com.moniev.verlet.core.MainEngine.ForkJoinBackend;
+import com.moniev.verlet.core.MainEngine.Integrator;
+import com.moniev.verlet.core.MainEngine.UniformGrid;
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * A process owning the particles of one slab of the world, stepped in lockstep with the other regions by a {@link Coordinator}.
+ * Every substep the worker sends the particles that left its slab and ghost copies of the particles lying within one
+ * diameter of another slab, receives the same from the others, and resolves its contacts with a {@link UniformGrid}
+ * over its own particles and the ghosts. Ghosts are appended to the store for the substep only and are never moved,
+ * their owner applies the mirrored half of every contact, as in {@link com.moniev.verlet.core.MainEngine.SlabDecomposition}.
+ */
+public class RegionWorker {
+
+    private final SocketChannel channel;  // Connection to the coordinator
+    private final ExecutionBackend backend;  // Backend running the grid passes of this process
+
+    private int region;  // Index of the slab owned by this worker
+    private float[] faces;  // Faces of every slab along x, as last sent by the coordinator
+    private int steps;  // Number of substeps of the run
+    private float subStepDt;  // Time step of one substep
+    private float ghostWidth;  // Distance from a foreign slab within which a particle is sent as a ghost
+
+    private ParticleStore store;  // Owned particles, followed by the ghosts during a substep
+    private Integrator integrator;  // Applies gravity, walls and the Verlet step to the owned particles
+    private UniformGrid grid;  // Finds the contacts among owned particles and ghosts
+    private final ContactCollector collector;  // Per-thread buffers receiving the contacts of the grid
+    private final ContactBuffer contacts;  // Contacts of the running substep
+
+    private ByteBuffer frame;  // Received frames
+    private ByteBuffer header;  // Header of the outgoing exchange
+    private ByteBuffer[] sectionHeaders;  // Destination and record counts of every outgoing section
+    private ByteBuffer[] migrants;  // Outgoing migrant records, per destination region
+    private ByteBuffer[] ghosts;  // Outgoing ghost records, per destination region
+    private int[] histogram;  // Owned particles per bin along x, sent every few steps for load balancing
+    private long totalParticles;  // Particles in the whole world after the last exchange
+
+    /**
+     * Connects to a coordinator.
+     *
+     * @param host The host of the coordinator.
+     * @param port The port of the coordinator.
+     * @param backend The backend running the grid passes, shut down by its owner.
+     * @throws IOException If the connection fails.
+     */
+    public RegionWorker(String host, int port, ExecutionBackend backend) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        this.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.backend = backend;
+        this.collector = new ContactCollector();
+        this.contacts = new ContactBuffer(1024);
+        this.frame = Protocol.allocate(1 << 16);
+        this.header = Protocol.allocate(64 + Protocol.HISTOGRAM_BINS * 4);
+        this.histogram = new int[Protocol.HISTOGRAM_BINS];
+    }
+
+    /**
+     * Announces the worker, receives its region, spawns its particles and runs every substep until the coordinator ends the run.
+     *
+     * @throws IOException If the connection fails.
+     */
+    public void run() throws IOException {
+        frame.clear();
+        Protocol.beginFrame(frame, Protocol.HELLO);
+        Protocol.endFrame(frame);
+        Protocol.writeFully(channel, frame);
+
+        frame = Protocol.readFrame(channel, frame);
+        if (frame.get(4) != Protocol.ASSIGN) throw new IOException("Expected ASSIGN, got " + frame.get(4));
+        frame.get();
+        assign(frame);
+
+        for (int step = 0; step < steps; step++) {
+            sendExchange(step);
+            frame = Protocol.readFrame(channel, frame);
+            byte type = frame.get();
+            if (type == Protocol.SHUTDOWN) {
+                channel.close();
+                return;
+            }
+            if (type != Protocol.DELIVER) throw new IOException("Expected DELIVER, got " + type);
+            int owned = receiveDeliver(frame);
+            substep(owned);
+        }
+
+        frame = Protocol.readFrame(channel, frame);
+        channel.close();
+    }
+
+    /**
+     * Reads the assignment and spawns the particles of the region at random positions inside it.
+     *
+     * @param buffer The assignment payload.
+     */
+    private void assign(ByteBuffer buffer) {
+        region = buffer.getInt();
+        int regionCount = buffer.getInt();
+        int particles = buffer.getInt();
+        long seed = buffer.getLong();
+        steps = buffer.getInt();
+        subStepDt = buffer.getFloat();
+        float radius = buffer.getFloat();
+        Vector center = new Vector(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        float size = buffer.getFloat();
+        faces = new float[regionCount + 1];
+        for (int i = 0; i <= regionCount; i++) faces[i] = buffer.getFloat();
+
+        ghostWidth = 2 * radius;
+        store = new ParticleStore(particles * 2);
+        integrator = new Integrator(store, center, size);
+        grid = new UniformGrid(store, center, size, 2 * radius, backend);
+        sectionHeaders = new ByteBuffer[regionCount];
+        migrants = new ByteBuffer[regionCount];
+        ghosts = new ByteBuffer[regionCount];
+        for (int r = 0; r < regionCount; r++) {
+            sectionHeaders[r] = Protocol.allocate(12);
+            migrants[r] = Protocol.allocate(Protocol.RECORD_BYTES * 64);
+            ghosts[r] = Protocol.allocate(Protocol.RECORD_BYTES * 256);
+        }
+
+        Random random = new Random(seed + region);
+        float low = faces[region], width = faces[region + 1] - low;
+        for (int i = 0; i < particles; i++) {
+            store.add(
+                low + radius + random.nextFloat() * (width - 2 * radius),
+                center.y + random.nextFloat() * (size - radius),
+                center.z - size + radius + random.nextFloat() * (2 * size - 2 * radius),
+                radius, 1f);
+        }
+    }
+
+    /**
+     * Removes the particles that left the region, sorts them and the ghost copies of the boundary particles by
+     * destination and sends them to the coordinator with gathering writes.
+     *
+     * @param step The index of the substep.
+     * @throws IOException If the connection fails.
+     */
+    private void sendExchange(int step) throws IOException {
+        for (int r = 0; r < migrants.length; r++) {
+            migrants[r].clear();
+            ghosts[r].clear();
+        }
+
+        for (int i = store.size() - 1; i >= 0; i--) {
+            int target = Protocol.regionOf(faces, store.x[i]);
+            if (target != region) {
+                migrants[target] = Protocol.ensureRemaining(migrants[target], Protocol.RECORD_BYTES);
+                Protocol.putParticle(migrants[target], store, i);
+                store.swapRemove(i);
+            }
+        }
+
+        int owned = store.size();
+        for (int i = 0; i < owned; i++) {
+            float x = store.x[i];
+            int first = Protocol.regionOf(faces, x - ghostWidth);
+            int last = Protocol.regionOf(faces, x + ghostWidth);
+            for (int target = first; target <= last; target++) {
+                if (target == region) continue;
+                ghosts[target] = Protocol.ensureRemaining(ghosts[target], Protocol.RECORD_BYTES);
+                Protocol.putParticle(ghosts[target], store, i);
+            }
+        }
+
+        boolean balance = step % Protocol.REBALANCE_INTERVAL == 0;
+        header.clear();
+        Protocol.beginFrame(header, Protocol.EXCHANGE);
+        header.putInt(step);
+        header.putInt(owned);
+        header.put((byte) (balance ? 1 : 0));
+        if (balance) {
+            countPositions();
+            for (int count : histogram) header.putInt(count);
+        }
+
+        int sections = 0;
+        long tail = 0;
+        for (int r = 0; r < migrants.length; r++) {
+            if (migrants[r].position() == 0 && ghosts[r].position() == 0) continue;
+            sections++;
+            tail += 12 + migrants[r].position() + ghosts[r].position();
+        }
+        header.putInt(sections);
+        Protocol.endFrame(header, tail);
+
+        ByteBuffer[] buffers = new ByteBuffer[1 + sections * 3];
+        buffers[0] = header;
+        int next = 1;
+        for (int r = 0; r < migrants.length; r++) {
+            if (migrants[r].position() == 0 && ghosts[r].position() == 0) continue;
+            ByteBuffer section = sectionHeaders[r];
+            section.clear();
+            section.putInt(r).putInt(migrants[r].position() / Protocol.RECORD_BYTES).putInt(ghosts[r].position() / Protocol.RECORD_BYTES);
+            section.flip();
+            migrants[r].flip();
+            ghosts[r].flip();
+            buffers[next++] = section;
+            buffers[next++] = migrants[r];
+            buffers[next++] = ghosts[r];
+        }
+        Protocol.writeFully(channel, buffers);
+    }
+
+    /**
+     * Fills the histogram of the owned particles along x over the whole world.
+     */
+    private void countPositions() {
+        Arrays.fill(histogram, 0);
+        float minX = integrator.minX, scale = histogram.length / (integrator.maxX - integrator.minX);
+        for (int i = 0; i < store.size(); i++) {
+            int bin = (int) ((store.x[i] - minX) * scale);
+            histogram[Math.max(0, Math.min(histogram.length - 1, bin))]++;
+        }
+    }
+
+    /**
+     * Reads the faces, adds the received migrants to the owned particles and appends the received ghosts after them.
+     *
+     * @param buffer The delivery payload.
+     * @return The number of owned particles, the ghosts follow them in the store.
+     */
+    private int receiveDeliver(ByteBuffer buffer) {
+        buffer.getInt();
+        totalParticles = buffer.getLong();
+        for (int i = 0; i < faces.length; i++) faces[i] = buffer.getFloat();
+
+        int migrantCount = buffer.getInt();
+        int ghostCount = buffer.getInt();
+        for (int i = 0; i < migrantCount; i++) Protocol.getParticle(buffer, store);
+        int owned = store.size();
+        for (int i = 0; i < ghostCount; i++) Protocol.getParticle(buffer, store);
+        return owned;
+    }
+
+    /**
+     * Resolves the contacts touching an owned particle, advances the owned particles and drops the ghosts.
+     *
+     * @param owned The number of owned particles, the ghosts follow them in the store.
+     */
+    private void substep(int owned) {
+        int n = store.size();
+        grid.clear();
+        for (int i = 0; i < n; i++) grid.insert(i);
+        grid.rebin();
+        grid.findPairs(collector);
+        collector.drainTo(contacts);
+
+        for (int k = 0; k < contacts.size(); k++) {
+            int p1 = contacts.p1(k), p2 = contacts.p2(k);
+            if (p1 >= owned && p2 >= owned) continue;
+            if (p1 < owned && p2 < owned) {
+                CollisionSolverTask.resolve(store, p1, p2, subStepDt);
+            } else {
+                int own = p1 < owned ? p1 : p2, ghost = p1 < owned ? p2 : p1;
+                CollisionSolverTask.resolveAgainst(store, own,
+                    store.x[ghost], store.y[ghost], store.z[ghost],
+                    store.prevX[ghost], store.prevY[ghost], store.prevZ[ghost],
+                    store.radius[ghost], store.mass[ghost], subStepDt);
+            }
+        }
+
+        store.truncate(owned);
+        integrator.advance(0, owned, subStepDt);
+    }
+
+    /**
+     * Returns the number of particles in the whole world, as reported by the coordinator.
+     *
+     * @return The global particle count.
+     */
+    public long getTotalParticles() {
+        return totalParticles;
+    }
+
+    /**
+     * Starts a worker process: {@code RegionWorker [host] [port] [threads]}.
+     *
+     * @param args The host and port of the coordinator and the number of threads of the grid passes.
+     * @throws IOException If the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : Coordinator.DEFAULT_PORT;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ExecutionBackend backend = new ForkJoinBackend(threads);
+        try {
+            new RegionWorker(host, port, backend).run();
+        } finally {
+            backend.shutdown();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.moniev.verlet.core.Kernel;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Narrow-phase and integration kernels working on primitive coordinate arrays.
+ * Implementations are chosen once at startup by {@link Kernels}, so the collision tasks
+ * and the integration pass never care whether they run scalar or vectorized code.
+ */
+public interface CollisionKernel {
+
+    /**
+     * Tests one particle against a contiguous block of candidates.
+     *
+     * @param px The x-coordinate of the particle.
+     * @param py The y-coordinate of the particle.
+     * @param pz The z-coordinate of the particle.
+     * @param pr The radius of the particle.
+     * @param cx The x-coordinates of the candidates.
+     * @param cy The y-coordinates of the candidates.
+     * @param cz The z-coordinates of the candidates.
+     * @param cr The radii of the candidates.
+     * @param from The first candidate index to test, inclusive.
+     * @param to The last candidate index to test, exclusive.
+     * @param hits Receives the indices of overlapping candidates, must hold at least {@code to - from} entries.
+     * @return The number of overlapping candidates written to {@code hits}.
+     */
+    int overlaps(float px, float py, float pz, float pr,
+                 float[] cx, float[] cy, float[] cz, float[] cr,
+                 int from, int to, int[] hits);
+
+    /**
+     * Advances a contiguous range of particles by one Verlet step and clears their acceleration.
+     *
+     * @param store The store holding the particles.
+     * @param from The first handle to integrate, inclusive.
+     * @param to The last handle to integrate, exclusive.
+     * @param dt The time step for the simulation.
+     */
+    void integrate(ParticleStore store, int from, int to, float dt);
+
+    /**
+     * Adds gravity to a contiguous range of particles, advances them by one Verlet step, clears their acceleration
+     * and reports the particles touching a wall, so the fused particle pass stays vectorized and only the few particles
+     * at the walls take the scalar projection.
+     *
+     * @param store The store holding the particles.
+     * @param from The first handle to advance, inclusive.
+     * @param to The last handle to advance, exclusive.
+     * @param dt The time step for the simulation.
+     * @param gx The x-component of the gravity.
+     * @param gy The y-component of the gravity.
+     * @param gz The z-component of the gravity.
+     * @param walls The bounds of the world: minimum x, y, z followed by maximum x, y, z.
+     * @param touching Receives the handles of the particles touching a wall, must hold at least {@code to - from} entries.
+     * @return The number of handles written to {@code touching}.
+     */
+    int advance(ParticleStore store, int from, int to, float dt, float gx, float gy, float gz, float[] walls, int[] touching);
+
+    /**
+     * Returns a short name of the kernel, used when reporting which implementation is active.
+     *
+     * @return The name of the kernel.
+     */
+    String name();
+}
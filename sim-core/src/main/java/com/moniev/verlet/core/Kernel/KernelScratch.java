@@ -0,0 +1,62 @@
+package com.moniev.verlet.core.Kernel;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Per-thread scratch arrays used to gather scattered particles into contiguous
+ * blocks before handing them to a {@link CollisionKernel}.
+ */
+public final class KernelScratch {
+
+    private static final ThreadLocal<KernelScratch> LOCAL = ThreadLocal.withInitial(KernelScratch::new);  // One scratch per worker thread
+
+    public float[] x, y, z, r;  // Gathered coordinates and radii
+    public int[] hits;  // Indices of overlapping candidates written by the kernel
+
+    private KernelScratch() {
+        ensureCapacity(64);
+    }
+
+    /**
+     * Returns the scratch owned by the calling thread.
+     *
+     * @return The scratch of the current thread.
+     */
+    public static KernelScratch get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Copies the coordinates and radii of the given particles into the scratch arrays.
+     *
+     * @param store The store holding the particles.
+     * @param particles The handles of the particles.
+     * @param count The number of handles to gather.
+     */
+    public void gather(ParticleStore store, int[] particles, int count) {
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int p = particles[i];
+            x[i] = store.x[p];
+            y[i] = store.y[p];
+            z[i] = store.z[p];
+            r[i] = store.radius[p];
+        }
+    }
+
+    /**
+     * Grows the scratch arrays to hold at least the given number of particles.
+     *
+     * @param capacity The number of particles the arrays must hold.
+     */
+    public void ensureCapacity(int capacity) {
+        if (hits != null && hits.length >= capacity) return;
+
+        int size = Math.max(capacity, hits == null ? 0 : hits.length * 2);
+        x = new float[size];
+        y = new float[size];
+        z = new float[size];
+        r = new float[size];
+        hits = new int[size];
+    }
+}
@@ -0,0 +1,46 @@
+package com.moniev.verlet.core.Kernel;
+
+/**
+ * Selects the {@link CollisionKernel} implementation once per JVM.
+ * The vectorized kernel lives in the optional {@code simd} module and needs the
+ * {@code jdk.incubator.vector} module at runtime, when either is missing the scalar kernel is used.
+ * The choice can be forced with the {@code verlet.kernel} system property ({@code scalar}, {@code simd} or {@code auto}).
+ */
+public final class Kernels {
+
+    public static final String SIMD_KERNEL_CLASS = "com.moniev.verlet.simd.VectorApiKernel";  // Implementation provided by the simd module
+
+    private static final CollisionKernel KERNEL = select(System.getProperty("verlet.kernel", "auto"));  // Kernel chosen at startup
+
+    private Kernels() {
+    }
+
+    /**
+     * Returns the kernel chosen at startup.
+     *
+     * @return The active kernel.
+     */
+    public static CollisionKernel get() {
+        return KERNEL;
+    }
+
+    /**
+     * Chooses a kernel for the given mode.
+     *
+     * @param mode Either {@code scalar}, {@code simd} or {@code auto}.
+     * @return The selected kernel.
+     * @throws IllegalStateException if {@code simd} was requested but cannot be loaded.
+     */
+    static CollisionKernel select(String mode) {
+        if ("scalar".equalsIgnoreCase(mode)) return new ScalarKernel();
+
+        try {
+            return (CollisionKernel) Class.forName(SIMD_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            if ("simd".equalsIgnoreCase(mode)) {
+                throw new IllegalStateException("SIMD kernel requested but not available: " + e, e);
+            }
+            return new ScalarKernel();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.moniev.verlet.core.Kernel;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Plain scalar implementation of the {@link CollisionKernel}, used whenever the vectorized
+ * kernel is not on the classpath or the JVM does not provide the Vector API.
+ */
+public class ScalarKernel implements CollisionKernel {
+
+    @Override
+    public int overlaps(float px, float py, float pz, float pr,
+                        float[] cx, float[] cy, float[] cz, float[] cr,
+                        int from, int to, int[] hits) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            float dx = px - cx[i];
+            float dy = py - cy[i];
+            float dz = pz - cz[i];
+            float radiusSum = pr + cr[i];
+            if (dx * dx + dy * dy + dz * dz <= radiusSum * radiusSum) {
+                hits[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void integrate(ParticleStore store, int from, int to, float dt) {
+        for (int i = from; i < to; i++) {
+            store.update(i, dt);
+        }
+    }
+
+    @Override
+    public int advance(ParticleStore store, int from, int to, float dt, float gx, float gy, float gz, float[] walls, int[] touching) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            store.accelerate(i, gx, gy, gz);
+            store.update(i, dt);
+            if (touchesWall(store, i, walls)) touching[count++] = i;
+        }
+        return count;
+    }
+
+    /**
+     * Tests whether a particle reaches one of the walls.
+     *
+     * @param store The store holding the particle.
+     * @param i The handle of the particle.
+     * @param walls The bounds of the world: minimum x, y, z followed by maximum x, y, z.
+     * @return true if the particle touches or crosses a wall.
+     */
+    public static boolean touchesWall(ParticleStore store, int i, float[] walls) {
+        float r = store.radius[i];
+        return store.x[i] - r <= walls[0] || store.x[i] + r >= walls[3]
+            || store.y[i] - r <= walls[1] || store.y[i] + r >= walls[4]
+            || store.z[i] - r <= walls[2] || store.z[i] + r >= walls[5];
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
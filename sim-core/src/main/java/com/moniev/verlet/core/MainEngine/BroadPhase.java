@@ -0,0 +1,74 @@
+package com.moniev.verlet.core.MainEngine;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Spatial acceleration structure used by the {@link Engine} to find candidate contacts.
+ * The engine keeps the particle state in a {@link com.moniev.verlet.core.Particle.ParticleStore},
+ * a broad phase only tracks particle handles and the spatial bins they fall into.
+ */
+public interface BroadPhase {
+
+    /**
+     * Starts tracking a particle.
+     *
+     * @param particle The handle of the particle.
+     */
+    void insert(int particle);
+
+    /**
+     * Moves tracked particles into the bins matching their current positions, called once per substep after integration.
+     */
+    void rebin();
+
+    /**
+     * Returns how many particles the last {@link #rebin()} actually moved into their bins.
+     * Structures rebuilt from scratch report every tracked particle, incremental ones only the particles that changed bin,
+     * and a call that skipped the work reports 0.
+     *
+     * @return The number of re-binned particles.
+     */
+    int getLastRebinned();
+
+    /**
+     * Enumerates every pair of overlapping particles and hands it to the sink.
+     *
+     * @param sink The receiver of the pairs, called from worker threads.
+     */
+    default void findPairs(PairSink sink) {
+        findPairs(sink, 0);
+    }
+
+    /**
+     * Enumerates every pair of particles whose surfaces are closer than the given margin and hands it to the sink.
+     * A positive margin is used to collect candidate pairs ahead of time, the bins must then be at least
+     * one particle diameter plus the margin wide.
+     *
+     * @param sink The receiver of the pairs, called from worker threads.
+     * @param margin The largest accepted gap between the surfaces of two particles.
+     */
+    void findPairs(PairSink sink, float margin);
+
+    /**
+     * Collects the particles whose centers lie within the given sphere.
+     *
+     * @param x The x-coordinate of the sphere center.
+     * @param y The y-coordinate of the sphere center.
+     * @param z The z-coordinate of the sphere center.
+     * @param radius The radius of the sphere.
+     * @param out The list receiving the handles, not cleared.
+     */
+    void query(float x, float y, float z, float radius, IntArray out);
+
+    /**
+     * Returns the number of tracked particles.
+     *
+     * @return The particle count.
+     */
+    int count();
+
+    /**
+     * Releases the threads and resources owned by the broad phase.
+     */
+    void dispose();
+}
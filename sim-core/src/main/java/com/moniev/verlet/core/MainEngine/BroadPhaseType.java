@@ -0,0 +1,10 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * The {@link BroadPhase} implementations the {@link Engine} can be built with.
+ */
+public enum BroadPhaseType {
+    OCTREE,        // Adaptive pointer based octree, see {@link Octree}
+    UNIFORM_GRID,  // Uniform grid with cells as large as a particle, see {@link UniformGrid}
+    LINEAR_OCTREE  // Morton ordered octree rebuilt with a radix sort, see {@link LinearOctree}
+}
@@ -0,0 +1,185 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * A task that resolves collisions between particles. It claims batches of contacts from a shared buffer
+ * and resolves the collisions by adjusting the positions and velocities of the particles involved.
+ * This task is intended to be executed in a separate thread for concurrency.
+ */
+public class CollisionSolverTask implements Runnable {
+    private final ParticleStore store; // Store holding the state of the colliding particles
+    private final ContactBuffer contacts; // Buffer containing the collision pairs
+    private final AtomicInteger cursor; // Index of the next unclaimed contact, shared by all tasks draining the buffer
+    private final float subStepDt; // Time step for the simulation
+    private static final int BATCHSIZE = 64; // Number of collision pairs claimed at once
+    private static final float RESTITUTION = 0.1f; // Coefficient of restitution for collision resolution
+    private static final float CORRECTION_FACTOR = 0.5f; // Correction factor for particle position adjustment
+
+    /**
+     * Constructs a CollisionSolverTask draining the given contacts.
+     * 
+     * @param store the store holding the colliding particles
+     * @param contacts the collision pairs to process
+     * @param cursor the index of the next unclaimed contact, shared with the other tasks draining the same buffer
+     * @param subStepDt the time step for each simulation substep
+     */
+    public CollisionSolverTask(ParticleStore store, ContactBuffer contacts, AtomicInteger cursor, float subStepDt) {
+        this.store = store;
+        this.contacts = contacts;
+        this.cursor = cursor;
+        this.subStepDt = subStepDt;
+    }
+
+    /**
+     * Resolves a collision between two particles by adjusting their positions and velocities.
+     * This includes calculating overlap, correcting positions, and applying an impulse for velocity adjustment.
+     * 
+     * @param p1 the handle of the first particle involved in the collision
+     * @param p2 the handle of the second particle involved in the collision
+     * @param subStepDt the time step for the simulation
+     */
+    public void resolveCollision(int p1, int p2, float subStepDt) {
+        resolve(store, p1, p2, subStepDt);
+    }
+
+    /**
+     * Resolves a collision between two particles of the given store.
+     * The particles are updated without synchronization, callers must not resolve two contacts sharing a particle concurrently.
+     * 
+     * @param store the store holding the particles
+     * @param p1 the handle of the first particle involved in the collision
+     * @param p2 the handle of the second particle involved in the collision
+     * @param subStepDt the time step for the simulation
+     */
+    public static void resolve(ParticleStore store, int p1, int p2, float subStepDt) {
+        float dx = store.x[p2] - store.x[p1];
+        float dy = store.y[p2] - store.y[p1];
+        float dz = store.z[p2] - store.z[p1];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        
+        if (distance == 0) {
+            dx = (float) (Math.random() * 0.01f);
+            dy = (float) (Math.random() * 0.01f);
+            dz = (float) (Math.random() * 0.01f);
+            distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    
+        float radiusSum = store.radius[p1] + store.radius[p2];
+    
+        if (distance <= radiusSum) {
+            float nx = dx / distance, ny = dy / distance, nz = dz / distance;
+            float overlap = radiusSum - distance;
+    
+            float m1 = store.mass[p1], m2 = store.mass[p2];
+            float massSum = m1 + m2;
+            float correction = (overlap * CORRECTION_FACTOR) / massSum;
+    
+            store.x[p1] -= nx * correction * m2;
+            store.y[p1] -= ny * correction * m2;
+            store.z[p1] -= nz * correction * m2;
+            store.x[p2] += nx * correction * m1;
+            store.y[p2] += ny * correction * m1;
+            store.z[p2] += nz * correction * m1;
+
+            float v1x = (store.x[p1] - store.prevX[p1]) / subStepDt;
+            float v1y = (store.y[p1] - store.prevY[p1]) / subStepDt;
+            float v1z = (store.z[p1] - store.prevZ[p1]) / subStepDt;
+            float v2x = (store.x[p2] - store.prevX[p2]) / subStepDt;
+            float v2y = (store.y[p2] - store.prevY[p2]) / subStepDt;
+            float v2z = (store.z[p2] - store.prevZ[p2]) / subStepDt;
+            float velocityAlongNormal = (v1x - v2x) * nx + (v1y - v2y) * ny + (v1z - v2z) * nz;
+    
+            if (velocityAlongNormal > 0) return;
+    
+            float impulseMagnitude = -(1 + RESTITUTION) * velocityAlongNormal / massSum;
+            float ix = nx * impulseMagnitude, iy = ny * impulseMagnitude, iz = nz * impulseMagnitude;
+    
+            store.setVelocity(p1, (v1x + ix * m2) * 0.9f, (v1y + iy * m2) * 0.9f, (v1z + iz * m2) * 0.9f, subStepDt);
+            store.setVelocity(p2, (v2x - ix * m1) * 0.9f, (v2y - iy * m1) * 0.9f, (v2z - iz * m1) * 0.9f, subStepDt);
+        }
+    }
+
+    /**
+     * Resolves a collision between a particle and a read-only copy of another particle, moving only the first one.
+     * The owner of the other particle applies the mirrored half with a copy of the first one, so both sides end up
+     * with the same corrections as {@link #resolve(ParticleStore, int, int, float)} without writing each other's state.
+     *
+     * @param store The store holding the particle.
+     * @param p1 The handle of the particle to move.
+     * @param x2 The position of the other particle along x.
+     * @param y2 The position of the other particle along y.
+     * @param z2 The position of the other particle along z.
+     * @param prevX2 The previous position of the other particle along x.
+     * @param prevY2 The previous position of the other particle along y.
+     * @param prevZ2 The previous position of the other particle along z.
+     * @param radius2 The radius of the other particle.
+     * @param m2 The mass of the other particle.
+     * @param subStepDt The time step for the velocity update.
+     */
+    public static void resolveAgainst(ParticleStore store, int p1, float x2, float y2, float z2,
+                                      float prevX2, float prevY2, float prevZ2, float radius2, float m2, float subStepDt) {
+        float dx = x2 - store.x[p1];
+        float dy = y2 - store.y[p1];
+        float dz = z2 - store.z[p1];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        if (distance == 0) {
+            dx = (float) (Math.random() * 0.01f);
+            dy = (float) (Math.random() * 0.01f);
+            dz = (float) (Math.random() * 0.01f);
+            distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        float radiusSum = store.radius[p1] + radius2;
+
+        if (distance <= radiusSum) {
+            float nx = dx / distance, ny = dy / distance, nz = dz / distance;
+            float overlap = radiusSum - distance;
+
+            float m1 = store.mass[p1];
+            float massSum = m1 + m2;
+            float correction = (overlap * CORRECTION_FACTOR) / massSum;
+
+            store.x[p1] -= nx * correction * m2;
+            store.y[p1] -= ny * correction * m2;
+            store.z[p1] -= nz * correction * m2;
+            float movedX2 = x2 + nx * correction * m1;
+            float movedY2 = y2 + ny * correction * m1;
+            float movedZ2 = z2 + nz * correction * m1;
+
+            float v1x = (store.x[p1] - store.prevX[p1]) / subStepDt;
+            float v1y = (store.y[p1] - store.prevY[p1]) / subStepDt;
+            float v1z = (store.z[p1] - store.prevZ[p1]) / subStepDt;
+            float v2x = (movedX2 - prevX2) / subStepDt;
+            float v2y = (movedY2 - prevY2) / subStepDt;
+            float v2z = (movedZ2 - prevZ2) / subStepDt;
+            float velocityAlongNormal = (v1x - v2x) * nx + (v1y - v2y) * ny + (v1z - v2z) * nz;
+
+            if (velocityAlongNormal > 0) return;
+
+            float impulseMagnitude = -(1 + RESTITUTION) * velocityAlongNormal / massSum;
+            float ix = nx * impulseMagnitude, iy = ny * impulseMagnitude, iz = nz * impulseMagnitude;
+
+            store.setVelocity(p1, (v1x + ix * m2) * 0.9f, (v1y + iy * m2) * 0.9f, (v1z + iz * m2) * 0.9f, subStepDt);
+        }
+    }
+
+    /**
+     * Drains the contact buffer by claiming batches of contacts until none are left.
+     * Tasks draining the same buffer never resolve the same contact twice, but may update the same particle concurrently.
+     */
+    @Override
+    public void run() {
+        int size = contacts.size();
+        int from;
+        while ((from = cursor.getAndAdd(BATCHSIZE)) < size) {
+            int to = Math.min(size, from + BATCHSIZE);
+            for (int k = from; k < to; k++) {
+                resolveCollision(contacts.p1(k), contacts.p2(k), subStepDt);
+            }
+        }
+    }
+}
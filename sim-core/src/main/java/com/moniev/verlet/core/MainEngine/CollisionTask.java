@@ -0,0 +1,222 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.KernelScratch;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * A task that checks for collisions between particles within the leaves of an Octree and hands collision pairs
+ * to a {@link PairSink}. The tree is first split into work units driven by the particle counts cached on the nodes:
+ * subtrees below {@link Octree#forkThreshold} become a single unit searched sequentially, empty subtrees are skipped,
+ * and leaves above {@link Octree#leafSplitThreshold} are split into ranges of rows holding a similar number of particle pairs.
+ * The units are then run in parallel on the {@link ExecutionBackend} of the tree.
+ */
+public class CollisionTask implements RangeAction {
+    private final Octree octree; // The Octree that holds all nodes and particles
+    private final ArrayList<OctreeNode> units; // The subtree or leaf searched by every work unit
+    private final IntArray ranges; // First and end row of every unit, -1 for a whole subtree
+    private PairSink sink; // The receiver of detected collision pairs during a search
+
+    /**
+     * Constructs a CollisionTask for the given Octree, reused by every search.
+     * 
+     * @param octree the Octree that holds all the particles
+     */
+    public CollisionTask(Octree octree) {
+        this.octree = octree;
+        this.units = new ArrayList<>();
+        this.ranges = new IntArray();
+    }
+
+    /**
+     * Checks whether two particles are colliding based on their positions and radii.
+     * 
+     * @param p1 the handle of the first particle
+     * @param p2 the handle of the second particle
+     * @return true if the particles are colliding, false otherwise
+     */
+    public boolean checkCollision(int p1, int p2) {
+        return octree.checkCollision(p1, p2);
+    }
+
+    /**
+     * Splits the tree into work units, runs them on the backend of the tree and returns once all of them completed.
+     * 
+     * @param sink the receiver of collision pairs
+     */
+    public void search(PairSink sink) {
+        units.clear();
+        ranges.clear();
+        plan(octree.root);
+
+        this.sink = sink;
+        octree.backend.parallelFor(units.size(), 1, this);
+        this.sink = null;
+    }
+
+    /**
+     * Runs the work units in the given range.
+     */
+    @Override
+    public void run(int from, int to) {
+        PairSink local = sink.local();
+        long tested = 0;
+        for (int k = from; k < to; k++) {
+            OctreeNode node = units.get(k);
+            int start = ranges.items[2 * k];
+            if (start < 0) {
+                tested += collideSubtree(node, local);
+            } else {
+                tested += collideLeaf(node, start, ranges.items[2 * k + 1], local);
+            }
+        }
+        octree.recordInnerPairs(tested);
+    }
+
+    /**
+     * Adds the work units of a subtree. A subtree holding few particles becomes one unit, a crowded leaf
+     * is split into row ranges with about the same number of pairs, and other inner nodes are split by child.
+     * 
+     * @param node the root of the subtree
+     */
+    private void plan(OctreeNode node) {
+        if (node == null || octree.workOf(node) < 2) return;
+
+        if (node.isLeaf) {
+            int size = node.particles.size;
+            if (size < 2) return;
+            planRows(node, size, 0, size - 1);
+        } else if (octree.workOf(node) <= octree.forkThreshold) {
+            addUnit(node, -1, -1);
+        } else {
+            for (OctreeNode child : node.children) {
+                plan(child);
+            }
+        }
+    }
+
+    /**
+     * Halves a row range of a leaf until every part tests few enough pairs for one unit.
+     * 
+     * @param leaf the leaf
+     * @param size the number of particles in the leaf
+     * @param start the first row
+     * @param end the end of the rows, exclusive
+     */
+    private void planRows(OctreeNode leaf, int size, int start, int end) {
+        if (end - start > 1 && pairsBetween(size, start, end) > (long) octree.leafSplitThreshold * octree.leafSplitThreshold / 2) {
+            int middle = balancedSplit(size, start, end);
+            planRows(leaf, size, start, middle);
+            planRows(leaf, size, middle, end);
+        } else {
+            addUnit(leaf, start, end);
+        }
+    }
+
+    /**
+     * Appends a work unit.
+     * 
+     * @param node the subtree or leaf of the unit
+     * @param start the first row, -1 for the whole subtree
+     * @param end the end of the rows, exclusive
+     */
+    private void addUnit(OctreeNode node, int start, int end) {
+        units.add(node);
+        ranges.add(start);
+        ranges.add(end);
+    }
+
+    /**
+     * Searches every leaf of the subtree on the calling thread.
+     * 
+     * @param node the root of the subtree
+     * @param local the sink of the calling worker
+     * @return the number of pairs tested
+     */
+    private long collideSubtree(OctreeNode node, PairSink local) {
+        if (node == null) return 0;
+
+        long tested = 0;
+        if (node.isLeaf) {
+            if (node.particles.size > 1) tested += collideLeaf(node, 0, node.particles.size - 1, local);
+        } else {
+            for (OctreeNode child : node.children) {
+                tested += collideSubtree(child, local);
+            }
+        }
+        return tested;
+    }
+
+    /**
+     * Gathers the particles of a leaf into contiguous scratch arrays and tests each particle of the range
+     * against the block of particles following it with the active {@link CollisionKernel}.
+     * 
+     * @param leaf the leaf to search
+     * @param start the first tested particle of the leaf
+     * @param end the end of the tested range, exclusive
+     * @param local the sink of the calling worker
+     * @return the number of pairs tested
+     */
+    private long collideLeaf(OctreeNode leaf, int start, int end, PairSink local) {
+        int size = leaf.particles.size;
+        int[] particles = leaf.particles.items;
+        ParticleStore store = octree.store;
+        CollisionKernel kernel = octree.kernel;
+        KernelScratch scratch = KernelScratch.get();
+        scratch.gather(store, particles, size);
+
+        for (int i = start; i < end; i++) {
+            int p1 = particles[i];
+            int hits = kernel.overlaps(
+                scratch.x[i], scratch.y[i], scratch.z[i], scratch.r[i] + octree.pairMargin,
+                scratch.x, scratch.y, scratch.z, scratch.r,
+                i + 1, size, scratch.hits);
+            for (int h = 0; h < hits; h++) {
+                local.addPair(p1, particles[scratch.hits[h]]);
+            }
+        }
+        return pairsBetween(size, start, end);
+    }
+
+    /**
+     * Returns the number of pairs tested by the rows of a leaf, row i covering the particles after it.
+     * 
+     * @param size the number of particles in the leaf
+     * @param start the first row
+     * @param end the end of the rows, exclusive
+     * @return the number of pairs
+     */
+    private static long pairsBetween(int size, int start, int end) {
+        return pairsFrom(size, start) - pairsFrom(size, end);
+    }
+
+    /**
+     * Returns the number of pairs tested by every row from the given one to the end of the leaf.
+     * 
+     * @param size the number of particles in the leaf
+     * @param row the first row
+     * @return the number of pairs
+     */
+    private static long pairsFrom(int size, int row) {
+        long rest = size - row;
+        return rest * (rest - 1) / 2;
+    }
+
+    /**
+     * Finds the row splitting a range of rows into two halves testing about the same number of pairs.
+     * 
+     * @param size the number of particles in the leaf
+     * @param start the first row
+     * @param end the end of the rows, exclusive
+     * @return the first row of the second half, strictly between start and end
+     */
+    private static int balancedSplit(int size, int start, int end) {
+        double half = (pairsFrom(size, start) + pairsFrom(size, end)) / 2.0;
+        int middle = size - (int) Math.round((1 + Math.sqrt(1 + 8 * half)) / 2);
+        return Math.max(start + 1, Math.min(end - 1, middle));
+    }
+}
@@ -0,0 +1,145 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Resolves contacts in parallel without locks by coloring the contact graph.
+ * Contacts are greedily assigned the lowest color not yet used by either of their particles, so no two contacts
+ * of one color share a particle. The colors are then solved one after another, each fully in parallel.
+ * A particle can take part in at most {@link #MAX_COLORS} colors, the contacts beyond are solved sequentially at the end.
+ */
+public class ColoredContactSolver {
+
+    public static final int MAX_COLORS = 64;  // Number of colors tracked by the per-particle bit masks
+
+    private final ParticleStore store;  // The store holding the colliding particles
+    private final PhaseScheduler scheduler;  // Runs the contacts of one color across the workers
+
+    private long[] usedColors;  // Colors already taken by the contacts of each particle, one bit per color
+    private int[] colorOf;  // Color of each contact, MAX_COLORS for overflow
+    private int[] ordered;  // Contacts sorted by color, two handles per contact
+    private final int[] counts;  // Number of contacts of each color, overflow last
+    private final int[] colorStart;  // Offset of the first contact of each color in {@link #ordered}, overflow last, with a trailing total
+    private int colors;  // Number of colors used by the last solve
+    private int overflow;  // Number of contacts solved sequentially by the last solve
+
+    private float stepDt;  // Time step of the running solve
+    private int base;  // First contact of the color being solved
+    private final RangeAction solveColor;  // Resolves a range of contacts of the current color
+
+    /**
+     * Constructs a solver for the particles of the given store.
+     *
+     * @param store The store holding the particles.
+     * @param scheduler The scheduler running the colors in parallel.
+     */
+    public ColoredContactSolver(ParticleStore store, PhaseScheduler scheduler) {
+        this.store = store;
+        this.scheduler = scheduler;
+        this.usedColors = new long[store.capacity()];
+        this.colorOf = new int[1024];
+        this.ordered = new int[2048];
+        this.counts = new int[MAX_COLORS + 1];
+        this.colorStart = new int[MAX_COLORS + 2];
+        this.solveColor = (from, to) -> {
+            for (int k = base + from; k < base + to; k++) {
+                CollisionSolverTask.resolve(store, ordered[2 * k], ordered[2 * k + 1], stepDt);
+            }
+        };
+    }
+
+    /**
+     * Colors the given contacts and resolves them color by color.
+     *
+     * @param contacts The contacts to resolve.
+     * @param subStepDt The time step for the simulation.
+     */
+    public void solve(ContactBuffer contacts, float subStepDt) {
+        int n = contacts.size();
+        colors = 0;
+        overflow = 0;
+        if (n == 0) return;
+
+        color(contacts);
+
+        stepDt = subStepDt;
+        for (int c = 0; c < colors; c++) {
+            base = colorStart[c];
+            scheduler.parallelFor(colorStart[c + 1] - base, solveColor);
+        }
+
+        for (int k = colorStart[MAX_COLORS]; k < n; k++) {
+            CollisionSolverTask.resolve(store, ordered[2 * k], ordered[2 * k + 1], subStepDt);
+        }
+    }
+
+    /**
+     * Greedily colors the contacts and sorts them by color into {@link #ordered}.
+     *
+     * @param contacts The contacts to color.
+     */
+    private void color(ContactBuffer contacts) {
+        int n = contacts.size();
+        if (usedColors.length < store.size()) {
+            usedColors = new long[Math.max(store.size(), usedColors.length * 2)];
+        }
+        if (colorOf.length < n) {
+            colorOf = new int[Math.max(n, colorOf.length * 2)];
+            ordered = new int[2 * colorOf.length];
+        }
+
+        Arrays.fill(counts, 0);
+        for (int k = 0; k < n; k++) {
+            int p1 = contacts.p1(k), p2 = contacts.p2(k);
+            long used = usedColors[p1] | usedColors[p2];
+            int c = used == -1L ? MAX_COLORS : Long.numberOfTrailingZeros(~used);
+            if (c < MAX_COLORS) {
+                long bit = 1L << c;
+                usedColors[p1] |= bit;
+                usedColors[p2] |= bit;
+                colors = Math.max(colors, c + 1);
+            }
+            colorOf[k] = c;
+            counts[c]++;
+        }
+        overflow = counts[MAX_COLORS];
+
+        int running = 0;
+        for (int c = 0; c <= MAX_COLORS; c++) {
+            colorStart[c] = running;
+            running += counts[c];
+        }
+        colorStart[MAX_COLORS + 1] = running;
+
+        Arrays.fill(counts, 0);
+        for (int k = 0; k < n; k++) {
+            int c = colorOf[k];
+            int slot = colorStart[c] + counts[c]++;
+            int p1 = contacts.p1(k), p2 = contacts.p2(k);
+            ordered[2 * slot] = p1;
+            ordered[2 * slot + 1] = p2;
+            usedColors[p1] = 0;
+            usedColors[p2] = 0;
+        }
+    }
+
+    /**
+     * Returns the number of colors used by the last solve.
+     *
+     * @return The color count.
+     */
+    public int getColorCount() {
+        return colors;
+    }
+
+    /**
+     * Returns the number of contacts that did not fit into a color during the last solve.
+     *
+     * @return The number of sequentially solved contacts.
+     */
+    public int getOverflow() {
+        return overflow;
+    }
+}
@@ -0,0 +1,164 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of contacts stored as pairs of particle handles in one int array.
+ * Not thread-safe, a buffer is filled by a single thread at a time.
+ */
+public class ContactBuffer implements PairSink {
+
+    private int[] pairs;  // Handles of the contacts, two per contact
+    private int size;  // Number of stored contacts
+    private long growths;  // Number of times the storage overflowed and was reallocated
+
+    private static final int RADIX_BITS = 16;  // Bits of the sort key ordered by one counting pass
+    private long[] keys, sortedKeys;  // Scratch of the canonical sort, kept across sorts
+    private int[] digitCounts;  // Counts of one digit of the sort keys
+
+    /**
+     * Constructs an empty buffer with room for the given number of contacts.
+     *
+     * @param capacity The initial number of contacts the buffer can hold.
+     */
+    public ContactBuffer(int capacity) {
+        this.pairs = new int[2 * Math.max(capacity, 16)];
+    }
+
+    /**
+     * Appends a contact.
+     *
+     * @param p1 The handle of the first particle.
+     * @param p2 The handle of the second particle.
+     */
+    public void add(int p1, int p2) {
+        if (2 * size == pairs.length) grow(size + 1);
+        pairs[2 * size] = p1;
+        pairs[2 * size + 1] = p2;
+        size++;
+    }
+
+    @Override
+    public void addPair(int p1, int p2) {
+        add(p1, p2);
+    }
+
+    /**
+     * Appends every contact of another buffer.
+     *
+     * @param other The buffer to copy from.
+     */
+    public void addAll(ContactBuffer other) {
+        if (2 * (size + other.size) > pairs.length) grow(size + other.size);
+        System.arraycopy(other.pairs, 0, pairs, 2 * size, 2 * other.size);
+        size += other.size;
+    }
+
+    /**
+     * Reallocates the storage to hold at least the given number of contacts.
+     * Grows from the capacity rather than the size, a buffer refilled right after {@link #clear()} still doubles.
+     *
+     * @param contacts The number of contacts to make room for.
+     */
+    private void grow(int contacts) {
+        pairs = Arrays.copyOf(pairs, 2 * Math.max(contacts, capacity() * 2));
+        growths++;
+    }
+
+    /**
+     * Puts the contacts in a canonical order: every contact stores its lower handle first, and the contacts are
+     * sorted by lower then higher handle. Afterwards the order only depends on which contacts were added, not on
+     * the order they were added in, so the result of a solver walking the buffer no longer depends on how the
+     * contacts were collected. Sorts with counting passes over reused scratch arrays, without allocating once warm.
+     */
+    public void sortCanonical() {
+        if (size == 0) return;
+        if (keys == null || keys.length < size) {
+            keys = new long[pairs.length / 2];
+            sortedKeys = new long[pairs.length / 2];
+        }
+        if (digitCounts == null) digitCounts = new int[1 << RADIX_BITS];
+
+        for (int k = 0; k < size; k++) {
+            int p1 = pairs[2 * k], p2 = pairs[2 * k + 1];
+            keys[k] = (long) Math.min(p1, p2) << 32 | Math.max(p1, p2);
+        }
+
+        long[] from = keys, to = sortedKeys;
+        int mask = (1 << RADIX_BITS) - 1;
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(digitCounts, 0);
+            for (int k = 0; k < size; k++) digitCounts[(int) (from[k] >>> shift) & mask]++;
+            if (digitCounts[(int) (from[0] >>> shift) & mask] == size) continue;  // Every key shares this digit
+
+            for (int d = 0, offset = 0; d <= mask; d++) {
+                int count = digitCounts[d];
+                digitCounts[d] = offset;
+                offset += count;
+            }
+            for (int k = 0; k < size; k++) to[digitCounts[(int) (from[k] >>> shift) & mask]++] = from[k];
+            long[] swap = from;
+            from = to;
+            to = swap;
+        }
+
+        for (int k = 0; k < size; k++) {
+            pairs[2 * k] = (int) (from[k] >>> 32);
+            pairs[2 * k + 1] = (int) from[k];
+        }
+    }
+
+    /**
+     * Returns the first particle of a contact.
+     *
+     * @param contact The index of the contact.
+     * @return The handle of the first particle.
+     */
+    public int p1(int contact) {
+        return pairs[2 * contact];
+    }
+
+    /**
+     * Returns the second particle of a contact.
+     *
+     * @param contact The index of the contact.
+     * @return The handle of the second particle.
+     */
+    public int p2(int contact) {
+        return pairs[2 * contact + 1];
+    }
+
+    /**
+     * Returns the number of contacts the buffer can hold without growing.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return pairs.length / 2;
+    }
+
+    /**
+     * Returns how many times the buffer overflowed and had to grow.
+     *
+     * @return The number of reallocations.
+     */
+    public long getGrowths() {
+        return growths;
+    }
+
+    /**
+     * Returns the number of stored contacts.
+     *
+     * @return The contact count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every contact, keeping the allocated storage.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * A {@link PairSink} giving every worker thread its own {@link ContactBuffer}.
+ * Workers fetch their buffer once with {@link #local()} and append to it without any synchronization,
+ * after the pair search the buffers are concatenated into a single list for the solver.
+ * The buffers of workers retired by the pool are dropped once drained, see {@link WorkerBuffers}.
+ */
+public class ContactCollector implements PairSink {
+
+    private static final int INITIAL_CAPACITY = 4096;  // Contacts a fresh worker buffer has room for
+
+    private final WorkerBuffers<ContactBuffer> buffers;  // Buffer of every live worker, in creation order
+    private int lastContacts;  // Number of contacts collected before the last drain
+
+    /**
+     * Constructs a collector without any worker buffers, they are created on first use by each thread.
+     */
+    public ContactCollector() {
+        this.buffers = new WorkerBuffers<>(() -> new ContactBuffer(INITIAL_CAPACITY));
+    }
+
+    /**
+     * Appends a pair to the buffer of the calling thread.
+     * Callers adding many pairs should fetch the buffer once with {@link #local()} instead.
+     */
+    @Override
+    public void addPair(int p1, int p2) {
+        buffers.local().add(p1, p2);
+    }
+
+    /**
+     * Returns the buffer of the calling thread.
+     *
+     * @return The worker buffer.
+     */
+    @Override
+    public PairSink local() {
+        return buffers.local();
+    }
+
+    /**
+     * Moves the contacts of every worker buffer into the given buffer, in buffer creation order,
+     * clears the worker buffers and drops those of terminated workers. Must not run concurrently with a pair search.
+     *
+     * @param out The buffer receiving the contacts, cleared first.
+     */
+    public void drainTo(ContactBuffer out) {
+        out.clear();
+        for (int i = 0; i < buffers.size(); i++) {
+            ContactBuffer buffer = buffers.get(i);
+            out.addAll(buffer);
+            buffer.clear();
+        }
+        buffers.retireTerminated();
+        lastContacts = out.size();
+    }
+
+    /**
+     * Returns the number of contacts collected before the last drain.
+     *
+     * @return The contact count.
+     */
+    public int getLastContacts() {
+        return lastContacts;
+    }
+
+    /**
+     * Returns the number of worker buffers in use.
+     *
+     * @return The buffer count.
+     */
+    public int getBufferCount() {
+        return buffers.size();
+    }
+
+    /**
+     * Returns the number of contacts all worker buffers can hold without growing.
+     *
+     * @return The total capacity.
+     */
+    public long getCapacity() {
+        long capacity = 0;
+        for (int i = 0; i < buffers.size(); i++) capacity += buffers.get(i).capacity();
+        return capacity;
+    }
+
+    /**
+     * Returns how many times a worker buffer overflowed and had to grow.
+     *
+     * @return The number of overflows.
+     */
+    public long getOverflows() {
+        long overflows = 0;
+        for (int i = 0; i < buffers.size(); i++) overflows += buffers.get(i).getGrowths();
+        return overflows;
+    }
+}
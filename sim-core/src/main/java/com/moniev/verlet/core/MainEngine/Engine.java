@@ -0,0 +1,454 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Telemetry.EngineMonitor;
+import com.moniev.verlet.core.Telemetry.FlightRecorderEvents;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * Engine class responsible for simulating particles in a 3D space using Verlet integration.
+ * The engine holds no graphics resources, the particle state is drawn by a renderer reading {@link #store}.
+ */
+public class Engine {
+    
+    public final int particlesLimit;          // Maximum number of particles allowed in the simulation.
+    public final int size;                    // Size of the simulation space.
+    public final int subSteps;                // Number of sub-steps for each simulation update.
+    public float mTime;                       // Time elapsed in the simulation.
+    public float mFrameDt;                    // Time per frame for the simulation.
+    public final float particleRadius;        // Radius of every spawned particle.
+    public final ParticleStore store;         // Structure-of-arrays storage holding the state of every particle.
+    public final BroadPhase broadPhase;       // Spatial structure used to find contacts, chosen at construction, null when the slabs bin their own particles.
+    public Octree tree;                       // Octree structure for spatial partitioning of particles, null for other broad phases and with slabs.
+    public final Integrator integrator;       // Applies gravity, walls and the Verlet step to the particle store.
+    public final SlabDecomposition domain;    // Slabs stepping their own particles, null when the workers share the broad phase.
+    public final ExecutionBackend backend;    // Runs the parallel loops of the engine and of the broad phase.
+    private final boolean ownsBackend;        // Whether the backend was created by this engine and is stopped by dispose().
+    public final PhaseScheduler scheduler;    // Runs the phases of every substep on the backend and times them.
+    public final ContactCollector contactCollector; // Per-worker buffers receiving the contacts found by the broad phase.
+    public final SolverMode solverMode;       // How the contacts are resolved in parallel.
+    public final boolean fusedParticlePass;   // Whether gravity, walls and the Verlet step run as a single pass.
+    private final ContactBuffer contacts;     // Contacts of the running substep, concatenated from the worker buffers.
+    private final AtomicInteger solveCursor;  // Next unclaimed contact of the queue solver.
+    private final ColoredContactSolver coloredSolver; // Resolves the contacts color by color without locks, null unless selected by the solver mode.
+    private final JacobiContactSolver jacobiSolver; // Resolves the contacts with averaged per-particle corrections, null unless selected by the solver mode.
+    private float stepDt;                     // Time step of the running substep, read by the phase actions.
+    private final RangeAction gravityPass, boundaryPass, integratePass, advancePass, solvePass; // Work of the parallel phases.
+    private final Runnable broadPhasePass, solvePhase, rebinPass, exchangePass, slabPass; // Work of the phases forking their own tasks.
+    private final Runnable innerDetectionPass, outerDetectionPass; // Octree searches timed as separate phases when the octree is the broad phase.
+    private final AtomicLongArray counters;   // Work counters indexed by EngineCounter ordinal, written by the updating thread.
+    private volatile long substepCount;       // Number of substeps run since the engine was created.
+    private final EngineMonitor monitor;      // JMX bean of the engine, null unless requested by the configuration.
+    private float[] spawnTimes;               // Simulation time at which every particle was spawned, picks its color.
+    private final Vector spawnVelocity;       // Scratch vector receiving the velocity of newly spawned particles.
+
+    /**
+     * Constructor for the Engine class using the octree broad phase.
+     * @param particlesLimit Maximum number of particles in the simulation.
+     * @param size Size of the simulation space.
+     * @param subSteps Number of sub-steps for each simulation update.
+     * @param rate Frame rate for the simulation.
+     */
+    public Engine(int particlesLimit, int size, int subSteps, float rate) {
+        this(new EngineConfig(particlesLimit, size, subSteps, rate));
+    }
+
+    /**
+     * Constructor for the Engine class, creating the execution backend selected by the configuration.
+     * @param config Settings of the simulation, including the broad phase implementation.
+     */
+    public Engine(EngineConfig config) {
+        this(config, createBackend(config), true);
+    }
+
+    /**
+     * Constructor for the Engine class running on a backend shared with other engines.
+     * The backend is not shut down by {@link #dispose()}.
+     * @param config Settings of the simulation, including the broad phase implementation.
+     * @param backend The backend running the parallel work.
+     */
+    public Engine(EngineConfig config, ExecutionBackend backend) {
+        this(config, backend, false);
+    }
+
+    /**
+     * Constructor for the Engine class.
+     * @param config Settings of the simulation, including the broad phase implementation.
+     * @param backend The backend running the parallel work.
+     * @param ownsBackend Whether {@link #dispose()} shuts the backend down.
+     */
+    private Engine(EngineConfig config, ExecutionBackend backend, boolean ownsBackend) {
+        Vector center = new Vector(0, 0, 0);
+        
+        this.backend = backend;
+        this.ownsBackend = ownsBackend;
+        this.subSteps = config.subSteps;
+        this.mFrameDt = 1.f / config.rate;
+        this.particleRadius = config.particleRadius;
+        this.store = new ParticleStore(config.particlesLimit);
+        this.spawnTimes = new float[config.particlesLimit];
+        this.spawnVelocity = new Vector(0, 0, 0);
+        BroadPhase spatial = config.slabs > 0 ? null : createBroadPhase(config, center);
+        this.tree = spatial instanceof Octree ? (Octree) spatial : null;
+        this.broadPhase = spatial != null && config.neighborSkin > 0 ? new NeighborList(spatial, store, config.neighborSkin, backend) : spatial;
+        this.integrator = new Integrator(store, center, config.size);
+        this.scheduler = new PhaseScheduler(backend, false);
+        this.domain = config.slabs > 0 ? new SlabDecomposition(store, integrator, backend, config.slabs) : null;
+        this.contactCollector = new ContactCollector();
+        this.solverMode = config.solverMode;
+        this.fusedParticlePass = config.fusedParticlePass;
+        this.contacts = new ContactBuffer(config.particlesLimit);
+        this.solveCursor = new AtomicInteger();
+        this.coloredSolver = solverMode == SolverMode.COLORED ? new ColoredContactSolver(store, scheduler) : null;
+        this.jacobiSolver = solverMode == SolverMode.JACOBI
+            ? new JacobiContactSolver(store, scheduler, config.relaxation, config.solverIterations)
+            : null;
+        this.gravityPass = integrator::resolveGravity;
+        this.boundaryPass = (from, to) -> integrator.resolveBoundary(from, to, stepDt);
+        this.integratePass = (from, to) -> integrator.updateParticles(from, to, stepDt);
+        this.advancePass = (from, to) -> integrator.advance(from, to, stepDt);
+        this.solvePass = (from, to) -> new CollisionSolverTask(store, contacts, solveCursor, stepDt).run();
+        this.broadPhasePass = () -> broadPhase.findPairs(contactCollector);
+        this.innerDetectionPass = tree != null && broadPhase == tree ? () -> tree.findInnerCollisionsParallel(contactCollector) : null;
+        this.outerDetectionPass = tree != null && broadPhase == tree ? () -> tree.findOuterCollisionsParallel(contactCollector) : null;
+        this.counters = new AtomicLongArray(EngineCounter.values().length);
+        this.solvePhase = () -> {
+            contactCollector.drainTo(contacts);
+            if (solverMode == SolverMode.QUEUE) {
+                solveCursor.set(0);
+                int numTasks = Math.min(contacts.size() / 64 + 1, scheduler.getParallelism());
+                scheduler.forEachTask(numTasks, solvePass);
+            } else if (solverMode == SolverMode.JACOBI) {
+                jacobiSolver.solve(contacts, stepDt);
+            } else {
+                coloredSolver.solve(contacts, stepDt);
+            }
+        };
+        this.rebinPass = broadPhase != null ? broadPhase::rebin : null;
+        this.exchangePass = domain != null ? domain::exchange : null;
+        this.slabPass = domain != null ? () -> domain.step(stepDt) : null;
+        this.particlesLimit = config.particlesLimit;
+        this.size = config.size;
+        this.monitor = config.registerMBean ? EngineMonitor.register(this) : null;
+    }
+
+    /**
+     * Creates the execution backend selected by the configuration.
+     * Platform pools are capped at the number of available cores, virtual threads are not.
+     * @param config Settings of the simulation.
+     * @return The backend, owned by the engine.
+     */
+    private static ExecutionBackend createBackend(EngineConfig config) {
+        int threads = Math.max(1, Math.min(config.threads, Runtime.getRuntime().availableProcessors()));
+        switch (config.backend) {
+            case SHARED_FORK_JOIN:
+                return ForkJoinBackend.shared();
+            case PLATFORM_THREADS:
+                return ThreadPoolBackend.platform(threads);
+            case VIRTUAL_THREADS:
+                return ThreadPoolBackend.virtual(Math.max(1, config.threads));
+            case SINGLE_THREADED:
+                return new SingleThreadBackend();
+            case FORK_JOIN:
+            default:
+                return new ForkJoinBackend(threads);
+        }
+    }
+
+    /**
+     * Creates the broad phase selected by the configuration.
+     * @param config Settings of the simulation.
+     * @param center Center of the simulation space.
+     * @return The broad phase tracking the particles of this engine.
+     */
+    private BroadPhase createBroadPhase(EngineConfig config, Vector center) {
+        switch (config.broadPhase) {
+            case UNIFORM_GRID:
+                return new UniformGrid(store, center, config.size, 2 * config.particleRadius + config.neighborSkin, backend);
+            case LINEAR_OCTREE:
+                return new LinearOctree(store, center, config.size, 2 * config.particleRadius + config.neighborSkin, backend);
+            case OCTREE:
+            default:
+                float minLeafSize = 2 * config.particleRadius + config.neighborSkin;
+                OctreeLimits limits = config.octreeLimits != null
+                    ? config.octreeLimits
+                    : OctreeLimits.uniform(defaultOctreeDepth(config.size, minLeafSize), config.size, 0.5f);
+                Octree octree = new Octree(store, center, config.size, backend, limits, mFrameDt);
+                if (octree.getMinLeafSize() < minLeafSize) {
+                    throw new IllegalArgumentException("Octree leaves down to " + octree.getMinLeafSize()
+                        + " wide miss contacts, the limits allow at most " + maxOctreeDepth(config.size, minLeafSize)
+                        + " levels for particles of radius " + config.particleRadius + " with a skin of " + config.neighborSkin);
+                }
+                octree.forkThreshold = config.forkThreshold;
+                octree.leafSplitThreshold = config.leafSplitThreshold;
+                return octree;
+        }
+    }
+
+    /**
+     * Returns the depth of the default octree limits, three levels unless the leaves would get narrower than allowed.
+     * @param size Size of the simulation space.
+     * @param minLeafSize The smallest leaf edge finding every contact, one particle diameter plus the skin.
+     * @return The number of levels below the root.
+     */
+    private static int defaultOctreeDepth(int size, float minLeafSize) {
+        return Math.min(3, maxOctreeDepth(size, minLeafSize));
+    }
+
+    /**
+     * Returns the deepest octree whose smallest leaves are still wide enough to find every contact.
+     * @param size Size of the simulation space, the edge of the root node.
+     * @param minLeafSize The smallest leaf edge finding every contact.
+     * @return The largest number of levels below the root, 0 when even the root is too narrow.
+     */
+    private static int maxOctreeDepth(int size, float minLeafSize) {
+        int depth = 0;
+        while (depth < 30 && Math.scalb((double) size, -(depth + 1)) >= minLeafSize) depth++;
+        return depth;
+    }
+
+    /**
+     * Returns the number of particles in the simulation.
+     * @return The particle count.
+     */
+    public int getParticleCount() {
+        return store.size();
+    }
+
+    /**
+     * Generates a random float value between the specified minimum and maximum values.
+     * @param min Minimum value.
+     * @param max Maximum value.
+     * @return Random float between min and max.
+     */
+    public float randomFloat(float min, float max) {
+        return min + (max - min) * ThreadLocalRandom.current().nextFloat();
+    }
+
+    /**
+     * Generates a random 3D vector with components between the specified minimum and maximum values.
+     * @param min Minimum value for each vector component.
+     * @param max Maximum value for each vector component.
+     * @return Random 3D vector.
+     */
+    public Vector randomVector(float min, float max) {
+        return new Vector(
+            randomFloat(min, max), 
+            randomFloat(min, max),  
+            randomFloat(min, max)   
+        ); 
+    }
+
+    /**
+     * Adds a particle to the simulation at a calculated position.
+     * Only the particle state is touched, so particles can be spawned from the simulation thread.
+     * @param i Index of the particle to calculate its position and velocity.
+     */
+    public void addParticle(int i) {
+        Vector velocity = calculateCoordinates(i, spawnVelocity);
+        addParticle(0, size - 2, 0, velocity.x, velocity.y, velocity.z);
+    }
+
+    /**
+     * Adds a particle to the simulation at the given position, moving with the given velocity.
+     * Used by scene generators that seed the whole state before the first update.
+     * @param x The x-coordinate of the particle.
+     * @param y The y-coordinate of the particle.
+     * @param z The z-coordinate of the particle.
+     * @param vx The velocity of the particle along x, in units per second.
+     * @param vy The velocity of the particle along y, in units per second.
+     * @param vz The velocity of the particle along z, in units per second.
+     * @return The handle of the new particle.
+     */
+    public int addParticle(float x, float y, float z, float vx, float vy, float vz) {
+        int particle = store.add(x, y, z, particleRadius, 1.f);
+        store.setVelocity(particle, vx, vy, vz, mFrameDt);
+        if (particle >= spawnTimes.length) spawnTimes = Arrays.copyOf(spawnTimes, spawnTimes.length * 2 + 1);
+        spawnTimes[particle] = mTime;
+        if (domain != null) {
+            domain.insert(particle);
+        } else {
+            broadPhase.insert(particle);
+        }
+        return particle;
+    }
+
+    /**
+     * Adds particles to the simulation until the particles limit is reached.
+     * @param i Index of the particle to calculate its position and velocity.
+     */
+    public void addParticles(int i){
+        if(store.size() < particlesLimit) { 
+            addParticle(i); 
+        }
+    }
+
+    /**
+     * Calculates the position of a particle based on a spiraling pattern.
+     * @param i Index of the particle to calculate its position.
+     * @return The calculated 3D position of the particle.
+     */
+    public Vector calculateCoordinates(int i) {
+        return calculateCoordinates(i, new Vector(0, 0, 0));
+    }
+
+    /**
+     * Calculates the position of a particle based on a spiraling pattern into the given vector.
+     * @param i Index of the particle to calculate its position.
+     * @param out The vector receiving the position.
+     * @return The given vector holding the calculated position.
+     */
+    public Vector calculateCoordinates(int i, Vector out) {
+        float turnFraction = (float) ((3 - Math.sqrt(5)) * Math.PI);  // Fraction for golden spiral
+        float normIter = (float) i / (particlesLimit - 1);  // Normalized index to range from 0 to 1
+        float scale = 10f;  // Scale of the spiral
+        float distance = scale * (float) Math.sqrt(normIter);  // Distance from the center based on index
+        float angle = 2 * (float) Math.PI * turnFraction * i;  // Angle for the spiral
+
+        float x = distance * (float) Math.cos(angle);  // X coordinate of the particle
+        float y = distance * (float) Math.sin(angle);  // Y coordinate of the particle
+        float z = scale * (float) Math.sin(normIter * Math.PI);  // Z coordinate of the particle
+
+        return out.set(x, y, z);  // Return the calculated position as a vector
+    }
+
+    /**
+     * Returns the simulation time at which a particle was spawned, renderers pick its color from it.
+     * @param particle The handle of the particle.
+     * @return The spawn time of the particle.
+     */
+    public float getSpawnTime(int particle) {
+        return spawnTimes[particle];
+    }
+
+    /**
+     * Updates the simulation by processing each sub-step, resolving gravity, collisions, and updating particle positions.
+     * Every phase of a sub-step completes before the next one starts, see {@link SimulationPhase}.
+     * With the fused particle pass, gravity and walls are applied within the integration phase.
+     * With a domain decomposition, the slabs exchange particles and ghosts and then each run their whole substep.
+     * Every phase is recorded into the latency histograms of the {@link #scheduler}, see {@link #getStats()},
+     * and every substep and phase is emitted as a Flight Recorder event while a recording is on.
+     */
+    public void update() {
+        float subStepDt = mFrameDt / (float)subSteps;  
+        mTime += mFrameDt; 
+        for(int i = 0; i < subSteps; i++) {  
+            substepCount++;
+            Object event = FlightRecorderEvents.beginSubstep();
+            substep(subStepDt);
+            FlightRecorderEvents.endSubstep(event, this);
+        }
+    }
+
+    /**
+     * Runs the phases of one substep.
+     * @param subStepDt The time step of the substep.
+     */
+    private void substep(float subStepDt) {
+        if (domain != null) {
+            scheduler.run(SimulationPhase.REBIN, exchangePass);
+            stepDt = subStepDt;
+            scheduler.run(SimulationPhase.SLAB_STEP, slabPass);
+            return;
+        }
+        if (fusedParticlePass) {
+            resolveCollisionsParallel(subStepDt);
+            stepDt = subStepDt;
+            scheduler.parallelFor(SimulationPhase.INTEGRATE, store.size(), advancePass);
+        } else {
+            scheduler.parallelFor(SimulationPhase.GRAVITY, store.size(), gravityPass);
+            resolveBoundaryParallel(subStepDt);  
+            resolveCollisionsParallel(subStepDt);  
+            stepDt = subStepDt;
+            scheduler.parallelFor(SimulationPhase.INTEGRATE, store.size(), integratePass);
+        }
+        scheduler.run(SimulationPhase.REBIN, rebinPass);
+        count(EngineCounter.PARTICLES_REBINNED, broadPhase.getLastRebinned());
+    }
+
+    /**
+     * Resolves the walls for all particles, split into handle ranges across the workers, and waits for them.
+     * @param subStepDt The time step for the collision resolution.
+     */
+    public void resolveBoundaryParallel(float subStepDt) {
+        stepDt = subStepDt;
+        scheduler.parallelFor(SimulationPhase.BOUNDARY, store.size(), boundaryPass);
+    }
+
+    /**
+     * Finds the contacts with the broad phase, hands them to the collision solvers and waits until all of them are resolved.
+     * @param subStepDt The time step for the collision resolution.
+     */
+    public void resolveCollisionsParallel(float subStepDt) {
+        if (innerDetectionPass != null) {
+            scheduler.run(SimulationPhase.INNER_DETECTION, innerDetectionPass);
+            scheduler.run(SimulationPhase.OUTER_DETECTION, outerDetectionPass);
+            count(EngineCounter.PAIRS_TESTED, tree.getInnerPairsTested() + tree.getOuterPairsTested());
+            count(EngineCounter.LEAVES_VISITED, tree.getLeafCount());
+        } else {
+            scheduler.run(SimulationPhase.BROAD_PHASE, broadPhasePass);
+        }
+
+        stepDt = subStepDt;
+        scheduler.run(SimulationPhase.SOLVE, solvePhase);
+        count(EngineCounter.CONTACTS_FOUND, contactCollector.getLastContacts());
+    }
+
+    /**
+     * Adds to a work counter. Only the updating thread writes the counters, readers see every completed addition.
+     * @param counter The counter.
+     * @param amount The amount to add.
+     */
+    private void count(EngineCounter counter, long amount) {
+        counters.lazySet(counter.ordinal(), counters.get(counter.ordinal()) + amount);
+    }
+
+    /**
+     * Returns the value of a work counter since the engine was created.
+     * @param counter The counter.
+     * @return The accumulated value.
+     */
+    public long getCounter(EngineCounter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Returns the number of contacts found by the broad phase during the last substep.
+     * @return The contact count, 0 with a domain decomposition.
+     */
+    public int getLastContacts() {
+        return domain != null ? 0 : contactCollector.getLastContacts();
+    }
+
+    /**
+     * Returns the number of substeps run since the engine was created.
+     * @return The substep count.
+     */
+    public long getSubstepCount() {
+        return substepCount;
+    }
+
+    /**
+     * Captures the phase latency histograms and the work counters of the engine since it was created.
+     * Use {@link EngineStats#capture(Engine)} on a preallocated snapshot to avoid the allocation.
+     * @return A new snapshot.
+     */
+    public EngineStats getStats() {
+        return new EngineStats().capture(this);
+    }
+
+    /**
+     * Releases the broad phase, unregisters the JMX bean and stops the backend if the engine created it.
+     */
+    public void dispose() {
+        if (monitor != null) monitor.unregister();
+        scheduler.shutdown();
+        if (broadPhase != null) broadPhase.dispose();
+        if (ownsBackend) backend.shutdown();
+    }
+}
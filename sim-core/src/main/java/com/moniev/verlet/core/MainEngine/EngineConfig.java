@@ -0,0 +1,47 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * Settings used to build an {@link Engine}.
+ * The defaults match the scene set up by {@link com.moniev.verlet.core.Main}.
+ */
+public class EngineConfig {
+
+    public int particlesLimit = 12000;                  // Maximum number of particles allowed in the simulation.
+    public int size = 16;                               // Half extent of the cubic simulation space.
+    public int subSteps = 4;                            // Number of sub-steps for each simulation update.
+    public float rate = 60;                             // Frame rate for the simulation.
+    public int threads = 16;                            // Number of threads requested for parallel work.
+    public ExecutionBackendType backend = ExecutionBackendType.FORK_JOIN;  // How the parallel work is run.
+    public float particleRadius = 0.5f;                 // Radius of spawned particles, also sizes the grid cells.
+    public BroadPhaseType broadPhase = BroadPhaseType.OCTREE;  // Spatial structure used to find contacts.
+    public SolverMode solverMode = SolverMode.COLORED;  // How the contacts are resolved in parallel.
+    public float relaxation = 1.5f;                     // Scale of the averaged corrections of the Jacobi solver.
+    public int solverIterations = 4;                    // Number of Jacobi iterations per substep, a single one lets piles sink into each other.
+    public boolean fusedParticlePass = true;            // Runs gravity, walls and the Verlet step as one parallel pass over the particles.
+    public float neighborSkin = 0f;                     // Skin of the Verlet neighbor lists reused across substeps, 0 searches every substep.
+    public OctreeLimits octreeLimits;                   // Per-level split and merge thresholds of the octree, derived from the size when null.
+    public int slabs = 0;                               // Slabs of the domain decomposition each stepped by one worker, 0 shares the broad phase.
+    public int forkThreshold = 256;                     // Particles below which an octree subtree is searched without forking tasks.
+    public int leafSplitThreshold = 512;                // Particles above which one octree leaf is searched by several tasks.
+    public boolean registerMBean = false;               // Registers an EngineMXBean on the platform MBean server, desktop and server JVMs only.
+
+    /**
+     * Constructs a configuration with the default settings.
+     */
+    public EngineConfig() {
+    }
+
+    /**
+     * Constructs a configuration with the given scene settings and defaults for the rest.
+     * @param particlesLimit Maximum number of particles in the simulation.
+     * @param size Size of the simulation space.
+     * @param subSteps Number of sub-steps for each simulation update.
+     * @param rate Frame rate for the simulation.
+     */
+    public EngineConfig(int particlesLimit, int size, int subSteps, float rate) {
+        this.particlesLimit = particlesLimit;
+        this.size = size;
+        this.subSteps = subSteps;
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,11 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * The work counters the {@link Engine} accumulates over its substeps, reported by {@link EngineStats}.
+ */
+public enum EngineCounter {
+    PAIRS_TESTED,        // Particle pairs handed to the narrow-phase kernel by the octree searches
+    CONTACTS_FOUND,      // Contacts handed to the solver
+    PARTICLES_REBINNED,  // Particles moved to another leaf by the octree, re-binned by the other broad phases, none when a neighbor list skips the rebin
+    LEAVES_VISITED       // Octree leaves visited by the searches
+}
@@ -0,0 +1,109 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * A snapshot of the instrumentation of an {@link Engine}: the latency histogram of every {@link SimulationPhase}
+ * and the {@link EngineCounter work counters}, accumulated since the engine started.
+ * Snapshots are preallocated and refilled with {@link #capture(Engine)}, and the difference of two snapshots gives
+ * the statistics of the interval between them, so a reader never has to reset the engine's own recorders.
+ * Capturing is safe while a {@link SimulationThread} steps the engine, the result may then straddle a substep.
+ */
+public class EngineStats {
+
+    private final LatencyHistogram[] phases;  // Latency of every phase, indexed by SimulationPhase ordinal
+    private final long[] counters;  // Value of every counter, indexed by EngineCounter ordinal
+    private long substeps;  // Number of substeps covered by the snapshot
+
+    /**
+     * Constructs an empty snapshot.
+     */
+    public EngineStats() {
+        this.phases = new LatencyHistogram[SimulationPhase.values().length];
+        for (int i = 0; i < phases.length; i++) phases[i] = new LatencyHistogram();
+        this.counters = new long[EngineCounter.values().length];
+    }
+
+    /**
+     * Replaces the content of this snapshot by the statistics of an engine since it started.
+     *
+     * @param engine The engine.
+     * @return This snapshot.
+     */
+    public EngineStats capture(Engine engine) {
+        for (SimulationPhase phase : SimulationPhase.values()) {
+            phases[phase.ordinal()].copyFrom(engine.scheduler.getHistogram(phase));
+        }
+        for (EngineCounter counter : EngineCounter.values()) {
+            counters[counter.ordinal()] = engine.getCounter(counter);
+        }
+        substeps = engine.getSubstepCount();
+        return this;
+    }
+
+    /**
+     * Replaces the content of this snapshot by a copy of another one.
+     *
+     * @param other The snapshot to copy.
+     * @return This snapshot.
+     */
+    public EngineStats copyFrom(EngineStats other) {
+        for (int i = 0; i < phases.length; i++) phases[i].copyFrom(other.phases[i]);
+        System.arraycopy(other.counters, 0, counters, 0, counters.length);
+        substeps = other.substeps;
+        return this;
+    }
+
+    /**
+     * Removes an earlier snapshot of the same engine, leaving the statistics of the substeps run in between.
+     *
+     * @param earlier The earlier snapshot.
+     * @return This snapshot.
+     */
+    public EngineStats subtract(EngineStats earlier) {
+        for (int i = 0; i < phases.length; i++) phases[i].subtract(earlier.phases[i]);
+        for (int i = 0; i < counters.length; i++) counters[i] = Math.max(0, counters[i] - earlier.counters[i]);
+        substeps = Math.max(0, substeps - earlier.substeps);
+        return this;
+    }
+
+    /**
+     * Returns the latency histogram of a phase.
+     *
+     * @param phase The phase.
+     * @return The histogram, in nanoseconds per run of the phase.
+     */
+    public LatencyHistogram getHistogram(SimulationPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Returns the value of a counter.
+     *
+     * @param counter The counter.
+     * @return The accumulated value.
+     */
+    public long getCounter(EngineCounter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    /**
+     * Returns the number of substeps covered by the snapshot.
+     *
+     * @return The substep count.
+     */
+    public long getSubsteps() {
+        return substeps;
+    }
+
+    /**
+     * Formats the statistics of a phase as one line: runs, mean, p50, p99 and max in milliseconds.
+     *
+     * @param phase The phase.
+     * @return The line, without a trailing line break.
+     */
+    public String formatPhase(SimulationPhase phase) {
+        LatencyHistogram histogram = getHistogram(phase);
+        return String.format("%-16s %8d runs  mean %7.3f  p50 %7.3f  p99 %7.3f  max %7.3f ms",
+            phase, histogram.getCount(), histogram.getMean() / 1e6,
+            histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6, histogram.getMax() / 1e6);
+    }
+}
@@ -0,0 +1,52 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * Runs the parallel loops of the engine and of the broad phases.
+ * A backend is created once and shared by every component of an {@link Engine}, whoever created it
+ * is responsible for shutting it down. Loops may be nested, a loop started from inside another loop
+ * must complete even when every worker of the backend is busy.
+ */
+public interface ExecutionBackend {
+
+    /**
+     * Returns the number of threads working on a loop at the same time.
+     *
+     * @return The parallelism of the backend, at least 1.
+     */
+    int getParallelism();
+
+    /**
+     * Splits the index range [0, count) into chunks of at most {@code grain} indices, runs them on the workers
+     * and returns once every chunk completed. The calling thread may run chunks itself.
+     *
+     * @param count The number of indices to process.
+     * @param grain The largest chunk handed to a worker.
+     * @param action The work applied to every chunk.
+     */
+    void parallelFor(int count, int grain, RangeAction action);
+
+    /**
+     * Returns the number of workers running chunks at the moment of the call, for monitoring.
+     * Backends without a way to observe their workers report 0.
+     *
+     * @return A sample of the busy workers.
+     */
+    default int getActiveThreadCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of chunks or tasks waiting for a worker at the moment of the call, for monitoring.
+     * Backends without a queue report 0.
+     *
+     * @return A sample of the queue depth.
+     */
+    default long getQueuedTaskCount() {
+        return 0;
+    }
+
+    /**
+     * Stops the workers owned by the backend, running loops complete first.
+     */
+    void shutdown();
+}
@@ -0,0 +1,12 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * Selects the {@link ExecutionBackend} created by the {@link Engine}.
+ */
+public enum ExecutionBackendType {
+    FORK_JOIN,  // Dedicated work-stealing pool sized by the configured threads
+    SHARED_FORK_JOIN,  // The JVM wide common fork-join pool, shared with every other engine
+    PLATFORM_THREADS,  // Fixed pool of platform threads sized by the configured threads
+    VIRTUAL_THREADS,  // Fixed set of virtual threads, requires Java 21
+    SINGLE_THREADED  // Every loop runs on the calling thread
+}
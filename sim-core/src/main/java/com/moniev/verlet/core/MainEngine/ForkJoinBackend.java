@@ -0,0 +1,87 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * An {@link ExecutionBackend} splitting loops with {@link RangeTask} on a work-stealing pool,
+ * either a dedicated pool or the JVM wide common pool.
+ */
+public class ForkJoinBackend implements ExecutionBackend {
+
+    private final ForkJoinPool pool;  // Pool running the loops
+    private final boolean owned;  // Whether the pool was created by this backend and is stopped by shutdown()
+
+    /**
+     * Constructs a backend with a dedicated pool of the given number of workers.
+     *
+     * @param threads The number of workers.
+     */
+    public ForkJoinBackend(int threads) {
+        this(new ForkJoinPool(Math.max(1, threads)), true);
+    }
+
+    /**
+     * Constructs a backend over the given pool.
+     *
+     * @param pool The pool running the loops.
+     * @param owned true if {@link #shutdown()} should stop the pool.
+     */
+    public ForkJoinBackend(ForkJoinPool pool, boolean owned) {
+        this.pool = pool;
+        this.owned = owned;
+    }
+
+    /**
+     * Returns a backend over the common pool, shutting it down has no effect.
+     *
+     * @return The shared backend.
+     */
+    public static ForkJoinBackend shared() {
+        return new ForkJoinBackend(ForkJoinPool.commonPool(), false);
+    }
+
+    @Override
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Runs small ranges on the calling thread, otherwise splits the range in halves on the pool.
+     * A loop started by a worker of the same pool is forked from that worker instead of being submitted again.
+     */
+    @Override
+    public void parallelFor(int count, int grain, RangeAction action) {
+        if (count <= 0) return;
+
+        if (count <= grain) {
+            action.run(0, count);
+            return;
+        }
+
+        RangeTask task = new RangeTask(0, count, grain, action);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    @Override
+    public int getActiveThreadCount() {
+        return pool.getActiveThreadCount();
+    }
+
+    /**
+     * Counts the tasks forked into the work queues of the workers and the loops submitted from outside the pool.
+     */
+    @Override
+    public long getQueuedTaskCount() {
+        return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+    }
+
+    @Override
+    public void shutdown() {
+        if (owned) pool.shutdown();
+    }
+}
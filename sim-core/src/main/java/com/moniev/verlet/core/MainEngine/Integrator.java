@@ -0,0 +1,206 @@
+package com.moniev.verlet.core.MainEngine;
+
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.KernelScratch;
+import com.moniev.verlet.core.Kernel.Kernels;
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * Applies the per-particle part of a substep: gravity, wall projection and the Verlet step.
+ * It works on handle ranges of the {@link ParticleStore} and knows nothing about the broad phase,
+ * so every {@link BroadPhase} implementation shares the same motion model.
+ */
+public class Integrator {
+
+    public final ParticleStore store;  // The store holding the state of every particle
+    public final CollisionKernel kernel;  // Kernel running the Verlet step, scalar or SIMD
+    public final Vector gravity;  // The gravity vector applied to all particles, usually pointing downward
+
+    private final float restitution = 0.1f;  // Coefficient determining energy retained after a collision (bounce)
+    private final float dampingCoefficient = 0.25f;  // Coefficient for damping (resistance to movement) applied to particles
+
+    private static final Vector NORMAL_POS_X = new Vector(1, 0, 0);  // Wall normals, shared so that boundary hits do not allocate
+    private static final Vector NORMAL_NEG_X = new Vector(-1, 0, 0);
+    private static final Vector NORMAL_POS_Y = new Vector(0, 1, 0);
+    private static final Vector NORMAL_NEG_Y = new Vector(0, -1, 0);
+    private static final Vector NORMAL_POS_Z = new Vector(0, 0, 1);
+    private static final Vector NORMAL_NEG_Z = new Vector(0, 0, -1);
+
+    public final float minX, minY, minZ;  // Minimum coordinates (X, Y, Z) of the walls
+    public final float maxX, maxY, maxZ;  // Maximum coordinates (X, Y, Z) of the walls
+    private final float[] walls;  // The bounds of the walls in the layout expected by the kernel
+
+    private static final int ADVANCE_BLOCK = 1024;  // Particles advanced by one kernel call, bounds the scratch of the wall hits
+
+    /**
+     * Constructs an Integrator for a cubic world.
+     *
+     * @param store The store holding the particles
+     * @param center The center of the world
+     * @param size The half extent of the world
+     */
+    public Integrator(ParticleStore store, Vector center, float size) {
+        this.store = store;
+        this.kernel = Kernels.get();
+        this.gravity = new Vector(0, -1000f, 0);
+
+        this.minX = center.x - size;
+        this.minY = center.y - size;
+        this.minZ = center.z - size;
+
+        this.maxX = center.x + size;
+        this.maxY = center.y + size;
+        this.maxZ = center.z + size;
+        this.walls = new float[] { minX, minY, minZ, maxX, maxY, maxZ };
+    }
+
+    /**
+     * Adds gravity to the acceleration of the particles in the given range.
+     *
+     * @param from The first handle, inclusive
+     * @param to The last handle, exclusive
+     */
+    public void resolveGravity(int from, int to) {
+        for (int i = from; i < to; i++) {
+            store.accelerate(i, gravity.x, gravity.y, gravity.z);
+        }
+    }
+
+    /**
+     * Projects the particles in the given range back inside the walls and reflects their velocity.
+     *
+     * @param from The first handle, inclusive
+     * @param to The last handle, exclusive
+     * @param subStepDt The time step for the collision resolution
+     */
+    public void resolveBoundary(int from, int to, float subStepDt) {
+        for (int particle = from; particle < to; particle++) {
+            if (resolveWalls(particle, subStepDt)) {
+                store.ax[particle] = gravity.x;
+                store.ay[particle] = gravity.y;
+                store.az[particle] = gravity.z;
+            }
+        }
+    }
+
+    /**
+     * Projects one particle back inside the walls and reflects its velocity.
+     *
+     * @param particle The handle of the particle
+     * @param subStepDt The time step for the collision resolution
+     * @return true if the particle touched a wall
+     */
+    private boolean resolveWalls(int particle, float subStepDt) {
+        float radius = store.radius[particle];
+        boolean reflected = false; 
+
+        if (store.x[particle] - radius <= minX) {
+            reflectVelocity(particle, NORMAL_POS_X, subStepDt);
+            store.x[particle] = minX + radius;
+            reflected = true;
+        } else if (store.x[particle] + radius >= maxX) {
+            reflectVelocity(particle, NORMAL_NEG_X, subStepDt);
+            store.x[particle] = maxX - radius;
+            reflected = true;
+        }
+            
+        if (store.y[particle] - radius <= minY) {
+            reflectVelocity(particle, NORMAL_POS_Y, subStepDt);
+            store.y[particle] = minY + radius;
+            reflected = true;
+        } else if (store.y[particle] + radius >= maxY) {
+            reflectVelocity(particle, NORMAL_NEG_Y, subStepDt);
+            store.y[particle] = maxY - radius;
+            reflected = true;
+        }
+
+        if (store.z[particle] - radius <= minZ) {
+            reflectVelocity(particle, NORMAL_POS_Z, subStepDt);
+            store.z[particle] = minZ + radius;
+            reflected = true;
+        } else if (store.z[particle] + radius >= maxZ) {
+            reflectVelocity(particle, NORMAL_NEG_Z, subStepDt);
+            store.z[particle] = maxZ - radius;
+            reflected = true;
+        }
+        return reflected;
+    }
+
+    /**
+     * Reflects a particle's velocity upon collision with the boundary.
+     *
+     * @param particle The handle of the particle to reflect
+     * @param normal The normal vector of the collision surface
+     * @param subStepDt The time step for the velocity update
+     */
+    public void reflectVelocity(int particle, Vector normal, float subStepDt) {
+        float vx = (store.x[particle] - store.prevX[particle]) / subStepDt;
+        float vy = (store.y[particle] - store.prevY[particle]) / subStepDt;
+        float vz = (store.z[particle] - store.prevZ[particle]) / subStepDt;
+        float velocityNormal = vx * normal.x + vy * normal.y + vz * normal.z;
+
+        if (velocityNormal >= 0) return;
+    
+        float scale = restitution * dampingCoefficient;
+        store.setVelocity(
+            particle,
+            (vx - normal.x * 2 * velocityNormal) * scale,
+            (vy - normal.y * 2 * velocityNormal) * scale,
+            (vz - normal.z * 2 * velocityNormal) * scale,
+            subStepDt
+        );
+    }
+
+    /**
+     * Advances the particles in the given range by one Verlet step.
+     *
+     * @param from The first handle, inclusive
+     * @param to The last handle, exclusive
+     * @param subStepDt The time step for the update
+     */
+    public void updateParticles(int from, int to, float subStepDt) {
+        kernel.integrate(store, from, to, subStepDt);
+    }
+
+    /**
+     * Applies gravity, advances by one Verlet step and projects back inside the walls every particle in the given range,
+     * reading and writing each particle once instead of once per pass.
+     * The kernel advances the range block by block and reports the particles at the walls, only those are projected.
+     * The walls act on the new positions, so the following re-bin and contact search already see them inside the world.
+     *
+     * @param from The first handle, inclusive
+     * @param to The last handle, exclusive
+     * @param subStepDt The time step for the update
+     */
+    public void advance(int from, int to, float subStepDt) {
+        float gx = gravity.x, gy = gravity.y, gz = gravity.z;
+        KernelScratch scratch = KernelScratch.get();
+        scratch.ensureCapacity(Math.min(ADVANCE_BLOCK, to - from));
+        for (int start = from; start < to; start += ADVANCE_BLOCK) {
+            int end = Math.min(to, start + ADVANCE_BLOCK);
+            int touching = kernel.advance(store, start, end, subStepDt, gx, gy, gz, walls, scratch.hits);
+            for (int k = 0; k < touching; k++) {
+                resolveWalls(scratch.hits[k], subStepDt);
+            }
+        }
+    }
+
+    /**
+     * Applies gravity, advances by one Verlet step and projects back inside the walls every listed particle,
+     * for callers owning a scattered set of handles.
+     *
+     * @param particles The handles of the particles
+     * @param count The number of handles to advance
+     * @param subStepDt The time step for the update
+     */
+    public void advance(int[] particles, int count, float subStepDt) {
+        float gx = gravity.x, gy = gravity.y, gz = gravity.z;
+        for (int k = 0; k < count; k++) {
+            int i = particles[k];
+            store.accelerate(i, gx, gy, gz);
+            store.update(i, subStepDt);
+            resolveWalls(i, subStepDt);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.moniev.verlet.core.MainEngine;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Resolves contacts with Jacobi iterations instead of updating the particles in place.
+ * The contacts are split into a fixed number of slices, each slice accumulates the position corrections of its
+ * contacts and how many contacts touched each particle into its own arrays. A parallel pass then sums the slices
+ * in a fixed order and moves every particle by its averaged correction scaled by a relaxation factor.
+ * The contacts are first put in a canonical order, so neither the slicing nor the summation order depend on how
+ * many workers collected them or in which order, and the result is the same under any thread count. Only positions are corrected, the velocity change follows from the Verlet step.
+ */
+public class JacobiContactSolver {
+
+    public static final int SLICES = 16;  // Number of independent accumulation buffers, fixed to keep the sums deterministic
+    private static final float CORRECTION_FACTOR = 0.5f;  // Fraction of the overlap removed by one contact, as in the in-place solver
+
+    private final ParticleStore store;  // The store holding the colliding particles
+    private final PhaseScheduler scheduler;  // Runs the accumulation and the reduction across the workers
+    public final float relaxation;  // Scale of the averaged corrections, above 1 converges faster, below 1 is more stable
+    public final int iterations;  // Number of Jacobi iterations per solve
+
+    private int stride;  // Number of particles each slice has room for
+    private float[] deltaX, deltaY, deltaZ;  // Accumulated corrections, slice after slice
+    private int[] touches;  // Number of contacts accumulated for each particle, slice after slice
+
+    private ContactBuffer contacts;  // Contacts of the running solve
+    private int sliceLength;  // Number of contacts per slice in the running solve
+    private final RangeAction accumulate;  // Accumulates the corrections of a range of slices
+    private final RangeAction apply;  // Sums the slices and applies the corrections of a range of particles
+
+    /**
+     * Constructs a solver for the particles of the given store.
+     *
+     * @param store The store holding the particles.
+     * @param scheduler The scheduler running the passes in parallel.
+     * @param relaxation The scale of the averaged corrections.
+     * @param iterations The number of Jacobi iterations per solve.
+     */
+    public JacobiContactSolver(ParticleStore store, PhaseScheduler scheduler, float relaxation, int iterations) {
+        this.store = store;
+        this.scheduler = scheduler;
+        this.relaxation = relaxation;
+        this.iterations = Math.max(1, iterations);
+        allocate(store.capacity());
+
+        this.accumulate = (from, to) -> {
+            for (int slice = from; slice < to; slice++) {
+                int end = Math.min(contacts.size(), (slice + 1) * sliceLength);
+                for (int k = slice * sliceLength; k < end; k++) {
+                    accumulate(slice * stride, contacts.p1(k), contacts.p2(k));
+                }
+            }
+        };
+        this.apply = (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float sumX = 0, sumY = 0, sumZ = 0;
+                int count = 0;
+                for (int slot = i; slot < SLICES * stride; slot += stride) {
+                    if (touches[slot] == 0) continue;
+                    sumX += deltaX[slot];
+                    sumY += deltaY[slot];
+                    sumZ += deltaZ[slot];
+                    count += touches[slot];
+                    deltaX[slot] = 0;
+                    deltaY[slot] = 0;
+                    deltaZ[slot] = 0;
+                    touches[slot] = 0;
+                }
+                if (count == 0) continue;
+
+                float scale = relaxation / count;
+                store.x[i] += sumX * scale;
+                store.y[i] += sumY * scale;
+                store.z[i] += sumZ * scale;
+            }
+        };
+    }
+
+    /**
+     * Allocates the accumulation buffers for the given number of particles.
+     *
+     * @param capacity The number of particles each slice has room for.
+     */
+    private void allocate(int capacity) {
+        stride = capacity;
+        deltaX = new float[SLICES * stride];
+        deltaY = new float[SLICES * stride];
+        deltaZ = new float[SLICES * stride];
+        touches = new int[SLICES * stride];
+    }
+
+    /**
+     * Resolves the given contacts with the configured number of Jacobi iterations.
+     *
+     * @param contacts The contacts to resolve, reordered canonically.
+     * @param subStepDt The time step for the simulation, unused since only positions are corrected.
+     */
+    public void solve(ContactBuffer contacts, float subStepDt) {
+        if (contacts.size() == 0) return;
+        if (stride < store.size()) allocate(Math.max(store.size(), stride * 2));
+
+        contacts.sortCanonical();
+        this.contacts = contacts;
+        this.sliceLength = (contacts.size() + SLICES - 1) / SLICES;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            scheduler.forEachTask(SLICES, accumulate);
+            scheduler.parallelFor(store.size(), apply);
+        }
+        this.contacts = null;
+    }
+
+    /**
+     * Adds the position correction of one contact to the buffers of a slice.
+     *
+     * @param offset The offset of the slice in the buffers.
+     * @param p1 The handle of the first particle.
+     * @param p2 The handle of the second particle.
+     */
+    private void accumulate(int offset, int p1, int p2) {
+        float dx = store.x[p2] - store.x[p1];
+        float dy = store.y[p2] - store.y[p1];
+        float dz = store.z[p2] - store.z[p1];
+        float distanceSquared = dx * dx + dy * dy + dz * dz;
+        float radiusSum = store.radius[p1] + store.radius[p2];
+        if (distanceSquared > radiusSum * radiusSum) return;
+
+        float distance = (float) Math.sqrt(distanceSquared);
+        float nx, ny, nz;
+        if (distance == 0) {
+            nx = 0;
+            ny = p1 < p2 ? 1 : -1;
+            nz = 0;
+        } else {
+            nx = dx / distance;
+            ny = dy / distance;
+            nz = dz / distance;
+        }
+
+        float m1 = store.mass[p1], m2 = store.mass[p2];
+        float correction = (radiusSum - distance) * CORRECTION_FACTOR / (m1 + m2);
+
+        int s1 = offset + p1, s2 = offset + p2;
+        deltaX[s1] -= nx * correction * m2;
+        deltaY[s1] -= ny * correction * m2;
+        deltaZ[s1] -= nz * correction * m2;
+        touches[s1]++;
+        deltaX[s2] += nx * correction * m1;
+        deltaY[s2] += ny * correction * m1;
+        deltaZ[s2] += nz * correction * m1;
+        touches[s2]++;
+    }
+}
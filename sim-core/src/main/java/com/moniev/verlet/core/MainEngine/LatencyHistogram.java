@@ -0,0 +1,185 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A preallocated histogram of durations in nanoseconds with logarithmic buckets.
+ * Every power of two is split into {@link #SUB_BUCKETS} linear buckets, so a recorded value is known within 12.5%
+ * from one nanosecond up to about 18 minutes, and recording is a few shifts and one store without allocation.
+ * Only one thread may record into a histogram, any thread may read it or copy it while it is being recorded into.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;  // Linear buckets per power of two, as a power of two
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // Linear buckets per power of two
+    private static final int MAX_EXPONENT = 40;  // Largest power of two with its own buckets, longer durations land in the last bucket
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;  // Number of buckets
+
+    private final AtomicLongArray counts;  // Recorded values per bucket
+    private volatile long totalCount;  // Number of recorded values, written by the recording thread only
+    private volatile long totalNanos;  // Sum of the recorded values, written by the recording thread only
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Returns the bucket holding a value.
+     *
+     * @param nanos The value, negative values count as 0.
+     * @return The index of the bucket.
+     */
+    public static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) Math.max(0, nanos);
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the smallest value held by a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The lower bound of the bucket, in nanoseconds.
+     */
+    public static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Returns the largest value held by a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The upper bound of the bucket, in nanoseconds.
+     */
+    public static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * Records a duration. Must only be called by the recording thread.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        int bucket = bucketOf(nanos);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        totalCount++;
+        totalNanos += nanos;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The value count.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return The total duration in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return The mean duration in nanoseconds, 0 when empty.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile of the recorded values.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The duration in nanoseconds, 0 when empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) total += counts.get(bucket);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return upperBound(bucket);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Returns the upper bound of the highest non-empty bucket, the largest value within bucket precision.
+     *
+     * @return The maximum duration in nanoseconds, 0 when empty.
+     */
+    public long getMax() {
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            if (counts.get(bucket) != 0) return upperBound(bucket);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of values recorded in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The count of the bucket.
+     */
+    public long getBucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Replaces the content of this histogram by a copy of another one.
+     *
+     * @param other The histogram to copy, possibly being recorded into.
+     * @return This histogram.
+     */
+    public LatencyHistogram copyFrom(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) counts.lazySet(bucket, other.counts.get(bucket));
+        totalCount = other.totalCount;
+        totalNanos = other.totalNanos;
+        return this;
+    }
+
+    /**
+     * Removes the values of an earlier copy of the same histogram, leaving the values recorded since that copy.
+     *
+     * @param earlier The earlier copy.
+     * @return This histogram.
+     */
+    public LatencyHistogram subtract(LatencyHistogram earlier) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.lazySet(bucket, Math.max(0, counts.get(bucket) - earlier.counts.get(bucket)));
+        }
+        totalCount = Math.max(0, totalCount - earlier.totalCount);
+        totalNanos = Math.max(0, totalNanos - earlier.totalNanos);
+        return this;
+    }
+
+    /**
+     * Removes every recorded value. Must only be called by the recording thread.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) counts.lazySet(bucket, 0);
+        totalCount = 0;
+        totalNanos = 0;
+    }
+}
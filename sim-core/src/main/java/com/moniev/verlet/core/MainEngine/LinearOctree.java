@@ -0,0 +1,434 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.KernelScratch;
+import com.moniev.verlet.core.Kernel.Kernels;
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * A {@link BroadPhase} storing the octree as a Morton-ordered array instead of linked nodes.
+ * Every substep each particle gets the Morton code of the leaf containing it, the particle handles are
+ * sorted by code with a parallel LSD radix sort, and every leaf becomes a contiguous slice of the sorted array.
+ * Leaves are as deep as the tree can go while still being at least one particle diameter wide, and only the
+ * occupied ones are kept, as flat arrays of keys and offsets. Pairs are enumerated per leaf over the leaf itself
+ * and the half of its 26 neighbors that follow it, looked up by binary search on the keys.
+ */
+public class LinearOctree implements BroadPhase {
+
+    private static final int PARTICLE_GRAIN = 4096;  // Particles handled by one task of the linear passes
+    private static final int LEAF_GRAIN = 256;  // Leaves handled by one task of the pair pass
+    private static final int RADIX_BITS = 8;  // Bits of the Morton code sorted by one radix pass
+    private static final int RADIX = 1 << RADIX_BITS;  // Number of buckets of one radix pass
+    private static final int MAX_LEVEL = 10;  // Deepest level representable by a 30-bit Morton code
+
+    public final ParticleStore store;  // The store holding the state of every tracked particle
+    public final int level;  // Depth of the leaves below the root
+    public final int cellsPerAxis;  // Number of leaves along each axis of a fully subdivided tree
+    public final float leafSize;  // Edge length of one leaf
+    public final float minX, minY, minZ;  // Minimum coordinates (X, Y, Z) covered by the tree
+
+    private final CollisionKernel kernel;  // Narrow-phase kernel used on the contiguous leaf slices
+    private final ExecutionBackend backend;  // Backend running the sorting and pair passes
+    private final int bits;  // Number of significant bits of the Morton codes
+    private final int blocks;  // Number of blocks the particle array is split into by the radix and compaction passes
+
+    private final IntArray particles;  // Handles of the tracked particles
+    private int binned;  // Number of particles covered by the last rebuild
+    private int blockLength;  // Number of particles per block during the last rebuild
+    private int[] codes, codesSwap;  // Morton codes in sorted order, and the buffer they are sorted through
+    private int[] sorted, sortedSwap;  // Particle handles in Morton order, and the buffer they are sorted through
+    private float[] sx, sy, sz, sr;  // Coordinates and radii in Morton order
+    private final int[] histograms;  // Per-block bucket counts of the running radix pass, turned into scatter offsets
+    private final int[] blockLeafs;  // Per-block number of leaf starts, turned into write offsets
+    private int shift;  // Bit offset of the digit sorted by the running radix pass
+
+    private int[] leafKey;  // Morton code of every occupied leaf, ascending
+    private int[] leafStart;  // Offset of the first particle of every leaf in {@link #sorted}, with a trailing total
+    private int leafCount;  // Number of occupied leaves
+
+    private final RangeAction encode, countDigits, scatterDigits, gather, countLeafs, writeLeafs;  // Passes of the rebuild
+    private PairSink pairSink;  // Sink of the running pair enumeration
+    private float pairMargin;  // Surface gap accepted by the running pair enumeration
+    private final RangeAction enumeratePairs;  // Pass enumerating pairs over the half stencil
+
+    /**
+     * Constructs a linear octree covering a cubic world.
+     *
+     * @param store The store holding the particles
+     * @param center The center of the world
+     * @param size The half extent of the world
+     * @param minLeafSize The smallest allowed leaf edge, at least the largest particle diameter
+     */
+    public LinearOctree(ParticleStore store, Vector center, float size, float minLeafSize) {
+        this(store, center, size, minLeafSize, ForkJoinBackend.shared());
+    }
+
+    /**
+     * Constructs a linear octree covering a cubic world, running its passes on the given backend.
+     *
+     * @param store The store holding the particles
+     * @param center The center of the world
+     * @param size The half extent of the world
+     * @param minLeafSize The smallest allowed leaf edge, at least the largest particle diameter
+     * @param backend The backend running the passes, shut down by its owner
+     */
+    public LinearOctree(ParticleStore store, Vector center, float size, float minLeafSize, ExecutionBackend backend) {
+        this.store = store;
+        this.minX = center.x - size;
+        this.minY = center.y - size;
+        this.minZ = center.z - size;
+
+        int depth = 0;
+        while (depth < MAX_LEVEL && 2 * size / (1 << (depth + 1)) >= minLeafSize) depth++;
+        this.level = depth;
+        this.cellsPerAxis = 1 << level;
+        this.leafSize = 2 * size / cellsPerAxis;
+        this.bits = 3 * level;
+
+        this.kernel = Kernels.get();
+        this.backend = backend;
+        this.blocks = Math.max(1, backend.getParallelism() * 4);
+
+        this.particles = new IntArray(store.capacity());
+        this.codes = new int[store.capacity()];
+        this.codesSwap = new int[store.capacity()];
+        this.sorted = new int[store.capacity()];
+        this.sortedSwap = new int[store.capacity()];
+        this.sx = new float[store.capacity()];
+        this.sy = new float[store.capacity()];
+        this.sz = new float[store.capacity()];
+        this.sr = new float[store.capacity()];
+        this.histograms = new int[blocks * RADIX];
+        this.blockLeafs = new int[blocks];
+        this.leafKey = new int[64];
+        this.leafStart = new int[65];
+
+        this.encode = (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int particle = particles.items[k];
+                codes[k] = leafCode(store.x[particle], store.y[particle], store.z[particle]);
+                sorted[k] = particle;
+            }
+        };
+        this.countDigits = (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int offset = b * RADIX;
+                Arrays.fill(histograms, offset, offset + RADIX, 0);
+                int end = Math.min(binned, (b + 1) * blockLength);
+                for (int k = b * blockLength; k < end; k++) {
+                    histograms[offset + ((codes[k] >>> shift) & (RADIX - 1))]++;
+                }
+            }
+        };
+        this.scatterDigits = (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int offset = b * RADIX;
+                int end = Math.min(binned, (b + 1) * blockLength);
+                for (int k = b * blockLength; k < end; k++) {
+                    int slot = histograms[offset + ((codes[k] >>> shift) & (RADIX - 1))]++;
+                    codesSwap[slot] = codes[k];
+                    sortedSwap[slot] = sorted[k];
+                }
+            }
+        };
+        this.gather = (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int particle = sorted[k];
+                sx[k] = store.x[particle];
+                sy[k] = store.y[particle];
+                sz[k] = store.z[particle];
+                sr[k] = store.radius[particle];
+            }
+        };
+        this.countLeafs = (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int count = 0;
+                int end = Math.min(binned, (b + 1) * blockLength);
+                for (int k = b * blockLength; k < end; k++) {
+                    if (k == 0 || codes[k] != codes[k - 1]) count++;
+                }
+                blockLeafs[b] = count;
+            }
+        };
+        this.writeLeafs = (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int leaf = blockLeafs[b];
+                int end = Math.min(binned, (b + 1) * blockLength);
+                for (int k = b * blockLength; k < end; k++) {
+                    if (k == 0 || codes[k] != codes[k - 1]) {
+                        leafKey[leaf] = codes[k];
+                        leafStart[leaf] = k;
+                        leaf++;
+                    }
+                }
+            }
+        };
+        this.enumeratePairs = this::enumeratePairs;
+    }
+
+    /**
+     * Returns the Morton code of the leaf containing the given point, points outside the tree are clamped to the border leaves.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param z The z-coordinate of the point.
+     * @return The Morton code of the leaf.
+     */
+    public int leafCode(float x, float y, float z) {
+        return morton(cell(x, minX), cell(y, minY), cell(z, minZ));
+    }
+
+    /**
+     * Returns the leaf coordinate of a point along one axis, clamped into the tree.
+     *
+     * @param v The coordinate of the point.
+     * @param min The minimum coordinate of the tree along the axis.
+     * @return The leaf coordinate.
+     */
+    private int cell(float v, float min) {
+        int c = (int) Math.floor((v - min) / leafSize);
+        return c < 0 ? 0 : (c >= cellsPerAxis ? cellsPerAxis - 1 : c);
+    }
+
+    /**
+     * Interleaves three 10-bit leaf coordinates into a 30-bit Morton code.
+     *
+     * @param cx The x-coordinate of the leaf.
+     * @param cy The y-coordinate of the leaf.
+     * @param cz The z-coordinate of the leaf.
+     * @return The Morton code.
+     */
+    public static int morton(int cx, int cy, int cz) {
+        return spread(cx) | (spread(cy) << 1) | (spread(cz) << 2);
+    }
+
+    /**
+     * Spreads the lowest 10 bits of a value so that two zero bits follow every bit.
+     *
+     * @param v The value to spread.
+     * @return The spread value.
+     */
+    private static int spread(int v) {
+        v &= 0x3ff;
+        v = (v | (v << 16)) & 0x030000ff;
+        v = (v | (v << 8)) & 0x0300f00f;
+        v = (v | (v << 4)) & 0x030c30c3;
+        v = (v | (v << 2)) & 0x09249249;
+        return v;
+    }
+
+    /**
+     * Extracts every third bit of a Morton code, the inverse of {@link #spread(int)}.
+     *
+     * @param v The Morton code shifted to the axis of interest.
+     * @return The coordinate along that axis.
+     */
+    private static int compact(int v) {
+        v &= 0x09249249;
+        v = (v | (v >>> 2)) & 0x030c30c3;
+        v = (v | (v >>> 4)) & 0x0300f00f;
+        v = (v | (v >>> 8)) & 0x030000ff;
+        v = (v | (v >>> 16)) & 0x3ff;
+        return v;
+    }
+
+    @Override
+    public void insert(int particle) {
+        particles.add(particle);
+    }
+
+    /**
+     * Rebuilds the tree from scratch: encodes every particle, radix sorts the handles by Morton code,
+     * gathers the coordinates in that order and compacts the runs of equal codes into leaves.
+     * Particles inserted since the last call only become visible to {@link #findPairs} and {@link #query} afterwards.
+     */
+    @Override
+    public void rebin() {
+        int n = particles.size;
+        ensureCapacity(n);
+        binned = n;
+        blockLength = Math.max(1, (n + blocks - 1) / blocks);
+
+        backend.parallelFor(n, PARTICLE_GRAIN, encode);
+
+        for (shift = 0; shift < bits; shift += RADIX_BITS) {
+            backend.parallelFor(blocks, 1, countDigits);
+            int running = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int b = 0; b < blocks; b++) {
+                    int count = histograms[b * RADIX + digit];
+                    histograms[b * RADIX + digit] = running;
+                    running += count;
+                }
+            }
+            backend.parallelFor(blocks, 1, scatterDigits);
+
+            int[] codesSorted = codesSwap;
+            codesSwap = codes;
+            codes = codesSorted;
+            int[] handlesSorted = sortedSwap;
+            sortedSwap = sorted;
+            sorted = handlesSorted;
+        }
+
+        backend.parallelFor(n, PARTICLE_GRAIN, gather);
+
+        backend.parallelFor(blocks, 1, countLeafs);
+        int running = 0;
+        for (int b = 0; b < blocks; b++) {
+            int count = blockLeafs[b];
+            blockLeafs[b] = running;
+            running += count;
+        }
+        if (leafKey.length < running) {
+            leafKey = new int[Math.max(running, leafKey.length * 2)];
+            leafStart = new int[leafKey.length + 1];
+        }
+        backend.parallelFor(blocks, 1, writeLeafs);
+        leafCount = running;
+        leafStart[leafCount] = n;
+    }
+
+    /**
+     * Grows the per-particle arrays to hold the given number of particles.
+     *
+     * @param n The number of tracked particles.
+     */
+    private void ensureCapacity(int n) {
+        if (sorted.length >= n) return;
+
+        int capacity = Math.max(n, sorted.length * 2);
+        codes = new int[capacity];
+        codesSwap = new int[capacity];
+        sorted = new int[capacity];
+        sortedSwap = new int[capacity];
+        sx = new float[capacity];
+        sy = new float[capacity];
+        sz = new float[capacity];
+        sr = new float[capacity];
+    }
+
+    /**
+     * Returns the index of the occupied leaf with the given Morton code.
+     *
+     * @param key The Morton code of the leaf.
+     * @return The index of the leaf, or a negative value if the leaf is empty.
+     */
+    private int findLeaf(int key) {
+        return Arrays.binarySearch(leafKey, 0, leafCount, key);
+    }
+
+    /**
+     * Returns the number of occupied leaves after the last rebuild.
+     *
+     * @return The leaf count.
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    @Override
+    public void findPairs(PairSink sink, float margin) {
+        if (binned == 0) return;
+
+        pairSink = sink;
+        pairMargin = margin;
+        backend.parallelFor(leafCount, LEAF_GRAIN, enumeratePairs);
+        pairSink = null;
+    }
+
+    /**
+     * Tests the particles of the given leaves against each other and against the 13 neighbors following each leaf,
+     * so every pair of touching leaves is visited once and every contact is reported once.
+     *
+     * @param from The first leaf, inclusive.
+     * @param to The last leaf, exclusive.
+     */
+    private void enumeratePairs(int from, int to) {
+        PairSink sink = pairSink.local();
+        float margin = pairMargin;
+        KernelScratch scratch = KernelScratch.get();
+
+        for (int leaf = from; leaf < to; leaf++) {
+            int start = leafStart[leaf], end = leafStart[leaf + 1];
+            scratch.ensureCapacity(end - start);
+            for (int i = start; i < end - 1; i++) {
+                int hits = kernel.overlaps(sx[i], sy[i], sz[i], sr[i] + margin, sx, sy, sz, sr, i + 1, end, scratch.hits);
+                for (int h = 0; h < hits; h++) {
+                    sink.addPair(sorted[i], sorted[scratch.hits[h]]);
+                }
+            }
+
+            int key = leafKey[leaf];
+            int cx = compact(key), cy = compact(key >>> 1), cz = compact(key >>> 2);
+            for (int dz = 0; dz <= 1; dz++) {
+                for (int dy = dz == 0 ? 0 : -1; dy <= 1; dy++) {
+                    for (int dx = (dz == 0 && dy == 0) ? 1 : -1; dx <= 1; dx++) {
+                        int nx = cx + dx, ny = cy + dy, nz = cz + dz;
+                        if (nx < 0 || ny < 0 || nx >= cellsPerAxis || ny >= cellsPerAxis || nz >= cellsPerAxis) continue;
+
+                        int neighbor = findLeaf(morton(nx, ny, nz));
+                        if (neighbor < 0) continue;
+
+                        int nStart = leafStart[neighbor], nEnd = leafStart[neighbor + 1];
+                        scratch.ensureCapacity(nEnd - nStart);
+                        for (int i = start; i < end; i++) {
+                            int hits = kernel.overlaps(sx[i], sy[i], sz[i], sr[i] + margin, sx, sy, sz, sr, nStart, nEnd, scratch.hits);
+                            for (int h = 0; h < hits; h++) {
+                                sink.addPair(sorted[i], sorted[scratch.hits[h]]);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the particles within the sphere from the last rebuild.
+     */
+    @Override
+    public void query(float x, float y, float z, float radius, IntArray out) {
+        if (binned == 0) return;
+
+        int lx = cell(x - radius, minX), hx = cell(x + radius, minX);
+        int ly = cell(y - radius, minY), hy = cell(y + radius, minY);
+        int lz = cell(z - radius, minZ), hz = cell(z + radius, minZ);
+        float radiusSquared = radius * radius;
+
+        for (int cz = lz; cz <= hz; cz++) {
+            for (int cy = ly; cy <= hy; cy++) {
+                for (int cx = lx; cx <= hx; cx++) {
+                    int leaf = findLeaf(morton(cx, cy, cz));
+                    if (leaf < 0) continue;
+
+                    for (int i = leafStart[leaf]; i < leafStart[leaf + 1]; i++) {
+                        float dx = sx[i] - x, dy = sy[i] - y, dz = sz[i] - z;
+                        if (dx * dx + dy * dy + dz * dz <= radiusSquared) out.add(sorted[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports every particle covered by the last binning, the structure is rebuilt from scratch.
+     */
+    @Override
+    public int getLastRebinned() {
+        return binned;
+    }
+
+    @Override
+    public int count() {
+        return particles.size;
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
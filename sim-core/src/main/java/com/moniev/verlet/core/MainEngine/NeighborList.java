@@ -0,0 +1,195 @@
+package com.moniev.verlet.core.MainEngine;
+
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * A {@link BroadPhase} caching Verlet neighbor lists on top of another broad phase.
+ * The wrapped broad phase is asked once for every pair closer than one diameter plus a skin, the pairs are kept
+ * in a compact {@link ContactBuffer} and only re-tested exactly on the following substeps. As long as no particle moved more
+ * than half the skin since the list was built, no pair missing from the list can overlap, so the wrapped broad phase
+ * is re-binned and searched again only once some particle crosses that distance.
+ */
+public class NeighborList implements BroadPhase {
+
+    private static final int PAIR_GRAIN = 2048;  // Candidate pairs re-tested by one task
+
+    public final BroadPhase inner;  // The broad phase building the lists
+    public final ParticleStore store;  // The store holding the state of every tracked particle
+    public final float skin;  // Extra distance covered by the lists beyond the particle surfaces
+
+    private final ExecutionBackend backend;  // Backend re-testing the cached pairs
+    private final ContactBuffer pairs;  // Cached candidate pairs
+    private float[] refX, refY, refZ;  // Particle positions when the wrapped broad phase was last re-binned
+    private boolean stale;  // Set when particles were inserted or moved too far, the wrapped broad phase must be re-binned
+    private boolean rebuildPending;  // Set after a re-bin, the next pair search rebuilds the lists
+    private int builds;  // Number of times the lists were rebuilt
+    private int lastRebinned;  // Particles re-binned by the wrapped broad phase during the last rebin, 0 when it was skipped
+
+    private final ContactCollector collector;  // Per-worker buffers receiving the pairs found by the wrapped broad phase
+    private PairSink pairSink;  // Sink of the running re-test
+    private final RangeAction retest;  // Re-tests a range of cached pairs against the current positions
+
+    /**
+     * Constructs neighbor lists over the given broad phase.
+     * The bins of the wrapped broad phase must be at least one particle diameter plus the skin wide.
+     *
+     * @param inner The broad phase building the lists
+     * @param store The store holding the particles
+     * @param skin The extra distance covered by the lists, larger skins rebuild less often but re-test more pairs
+     */
+    public NeighborList(BroadPhase inner, ParticleStore store, float skin) {
+        this(inner, store, skin, ForkJoinBackend.shared());
+    }
+
+    /**
+     * Constructs neighbor lists over the given broad phase, re-testing the pairs on the given backend.
+     *
+     * @param inner The broad phase building the lists
+     * @param store The store holding the particles
+     * @param skin The extra distance covered by the lists, larger skins rebuild less often but re-test more pairs
+     * @param backend The backend re-testing the pairs, shut down by its owner
+     */
+    public NeighborList(BroadPhase inner, ParticleStore store, float skin, ExecutionBackend backend) {
+        this.inner = inner;
+        this.store = store;
+        this.skin = skin;
+        this.backend = backend;
+        this.pairs = new ContactBuffer(store.capacity());
+        this.refX = new float[store.capacity()];
+        this.refY = new float[store.capacity()];
+        this.refZ = new float[store.capacity()];
+        this.stale = true;
+
+        this.collector = new ContactCollector();
+        this.retest = (from, to) -> {
+            PairSink sink = pairSink.local();
+            for (int k = from; k < to; k++) {
+                int p1 = pairs.p1(k), p2 = pairs.p2(k);
+                float dx = store.x[p1] - store.x[p2];
+                float dy = store.y[p1] - store.y[p2];
+                float dz = store.z[p1] - store.z[p2];
+                float radiusSum = store.radius[p1] + store.radius[p2];
+                if (dx * dx + dy * dy + dz * dz <= radiusSum * radiusSum) {
+                    sink.addPair(p1, p2);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void insert(int particle) {
+        inner.insert(particle);
+        stale = true;
+    }
+
+    /**
+     * Re-bins the wrapped broad phase only if particles were inserted or one of them moved more than half the skin
+     * since the last re-bin, the positions at that moment become the reference of the next check.
+     */
+    @Override
+    public void rebin() {
+        lastRebinned = 0;
+        if (!stale && !displaced()) return;
+
+        inner.rebin();
+        lastRebinned = inner.getLastRebinned();
+        int n = store.size();
+        if (refX.length < n) {
+            int capacity = Math.max(n, refX.length * 2);
+            refX = new float[capacity];
+            refY = new float[capacity];
+            refZ = new float[capacity];
+        }
+        System.arraycopy(store.x, 0, refX, 0, n);
+        System.arraycopy(store.y, 0, refY, 0, n);
+        System.arraycopy(store.z, 0, refZ, 0, n);
+        stale = false;
+        rebuildPending = true;
+    }
+
+    /**
+     * Checks whether any particle moved more than half the skin away from its reference position.
+     *
+     * @return true if the lists may miss a contact.
+     */
+    private boolean displaced() {
+        float limit = skin * 0.5f;
+        float limitSquared = limit * limit;
+        int n = store.size();
+        for (int i = 0; i < n; i++) {
+            float dx = store.x[i] - refX[i];
+            float dy = store.y[i] - refY[i];
+            float dz = store.z[i] - refZ[i];
+            if (dx * dx + dy * dy + dz * dz > limitSquared) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rebuilds the lists if the wrapped broad phase was re-binned, then hands every cached pair that overlaps to the sink.
+     * Only exact overlaps are supported: the bins of the wrapped broad phase may lag behind by half the skin,
+     * so a search with a margin could miss pairs.
+     *
+     * @throws IllegalArgumentException if the margin is positive.
+     */
+    @Override
+    public void findPairs(PairSink sink, float margin) {
+        if (margin > 0) throw new IllegalArgumentException("Neighbor lists only report overlapping pairs, got margin " + margin);
+        if (rebuildPending) {
+            inner.findPairs(collector, skin);
+            collector.drainTo(pairs);
+            rebuildPending = false;
+            builds++;
+        }
+
+        pairSink = sink;
+        backend.parallelFor(pairs.size(), PAIR_GRAIN, retest);
+        pairSink = null;
+    }
+
+    /**
+     * Returns the number of candidate pairs in the current lists.
+     *
+     * @return The pair count.
+     */
+    public int getPairCount() {
+        return pairs.size();
+    }
+
+    /**
+     * Returns how many times the lists were rebuilt.
+     *
+     * @return The build count.
+     */
+    public int getBuilds() {
+        return builds;
+    }
+
+    /**
+     * Collects the particles within the sphere from the wrapped broad phase, whose bins may lag behind by half the skin.
+     */
+    @Override
+    public void query(float x, float y, float z, float radius, IntArray out) {
+        inner.query(x, y, z, radius, out);
+    }
+
+    /**
+     * Reports the particles re-binned by the wrapped broad phase, 0 when the lists were still valid.
+     */
+    @Override
+    public int getLastRebinned() {
+        return lastRebinned;
+    }
+
+    @Override
+    public int count() {
+        return inner.count();
+    }
+
+    @Override
+    public void dispose() {
+        inner.dispose();
+    }
+}
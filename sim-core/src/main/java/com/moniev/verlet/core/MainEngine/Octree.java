@@ -0,0 +1,764 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.Kernels;
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * The Octree class represents a spatial partitioning structure used to organize particles
+ * in 3D space for efficient collision detection and physics simulation.
+ * It is the adaptive {@link BroadPhase} of the engine: leaves subdivide as they fill up,
+ * collisions are detected inside leaves and across adjacent leaves.
+ */
+public class Octree implements BroadPhase {
+    
+    public OctreeNode root;  // The root node of the octree, containing all subdivisions of the 3D space
+    public final ParticleStore store;  // The store holding the state of every particle referenced by the nodes
+    public final CollisionKernel kernel;  // Narrow-phase and integration kernel chosen at startup, scalar or SIMD
+
+    public final OctreeLimits limits;  // Per-level split and merge thresholds of the nodes
+    public final int maxDepth;  // The maximum depth of the octree, limiting its subdivisions
+    public final float rootSize;  // Edge length of the root node, halved on every level below it
+    public int totalDepth = 1;  // The current depth of the octree, starts at 1 and follows the deepest leaf after each spatial lookup update
+
+    public final float stepDt;  // The time step (delta time) for each physics update step
+    public final Vector center;  // The center point of the octree in 3D space, used for calculating boundaries
+    public final float minX, minY, minZ;  // Minimum coordinates (X, Y, Z) defining the lower bounds of the octree
+    public final float maxX, maxY, maxZ;  // Maximum coordinates (X, Y, Z) defining the upper bounds of the octree
+
+    public final ExecutionBackend backend;  // Backend running the parallel passes, shut down by its owner
+    private final CollisionTask innerSearch;  // Splits the search within leaves into work units
+    private final OuterCollisionTask outerSearch;  // Splits the search across adjacent leaves into work units
+
+    private OctreeNode[] owners;  // Leaf holding each particle, indexed by particle handle
+    private int[] slots;  // Position of each particle inside the particle list of its leaf
+    private final WorkerBuffers<IntArray> moverBuffers;  // Particles that left their leaf, collected per worker thread and drained after each spatial lookup update
+    private final RangeAction collectMovers;  // Removes the particles that left a range of cached leaves
+    private int lastMoved;  // Number of particles that changed leaf during the last spatial lookup update
+    public int forkThreshold = 256;  // Estimated particles below which a subtree is searched by one task without forking
+    public int leafSplitThreshold = 512;  // Particles above which a single leaf is searched by several tasks over ranges of its particles
+    float pairMargin;  // Surface gap accepted by the running collision search, zero outside of findPairs
+    private final ArrayList<OctreeNode> leafs;  // Leaves of the tree, cached together with their neighbor lists
+    private volatile int leafCount;  // Number of cached leaves after the last neighbor update, readable from any thread
+    private final ArrayDeque<OctreeNode> searchQueue;  // Queue of the breadth first search over neighbor lists
+    private final RangeAction buildNeighbors;  // Rebuilds the neighbor lists of a range of cached leaves
+    private final RangeAction collectBorders;  // Refreshes the border particles of a range of cached leaves
+    private final LongAdder innerPairsTested;  // Particle pairs within leaves handed to the kernel during the last inner pass
+    private final LongAdder outerPairsTested;  // Cross-leaf particle pairs handed to the kernel during the last outer pass
+    private final LongAdder outerContacts;  // Unique cross-leaf contacts emitted during the last outer pass
+    public static final int OCCUPANCY_BUCKETS = 18;  // Buckets of the leaf occupancy distribution, see occupancyBucket
+    private final int[] occupancyScratch;  // Leaf occupancy counted by the running spatial lookup update
+    private final AtomicIntegerArray leafOccupancy;  // Leaf occupancy of the last spatial lookup update, readable from any thread
+    private volatile int publishedDepth = 1;  // Value of totalDepth after the last spatial lookup update, readable from any thread
+    private volatile boolean topologyChanged;  // Set when nodes subdivide, the neighbor lists are stale until rebuilt
+    private int searchMark;  // Mark of the running neighbor search, compared against OctreeNode.searchMark
+
+    /**
+     * Constructs an Octree with the specified parameters.
+     *
+     * @param store The store holding the particles organized by the octree
+     * @param center The center of the octree
+     * @param size The size of the octree's boundary
+     * @param backend The backend running the parallel passes, shut down by its owner
+     * @param stepDt The time step for particle updates
+     */
+    public Octree(ParticleStore store, Vector center, int size, ExecutionBackend backend, float stepDt) {
+        this(store, center, size, backend, OctreeLimits.uniform(3, size, 0.5f), stepDt);
+    }
+
+    /**
+     * Constructs an Octree with the specified parameters and per-level occupancy limits.
+     *
+     * @param store The store holding the particles organized by the octree
+     * @param center The center of the octree
+     * @param size The size of the octree's boundary
+     * @param backend The backend running the parallel passes, shut down by its owner
+     * @param limits The split and merge thresholds of each level
+     * @param stepDt The time step for particle updates
+     */
+    public Octree(ParticleStore store, Vector center, int size, ExecutionBackend backend, OctreeLimits limits, float stepDt) {
+        this.store = store;
+        this.limits = limits;
+        this.maxDepth = limits.maxDepth;
+        this.kernel = Kernels.get();
+        this.center = center;
+        this.minX = center.x - size;
+        this.minY = center.y - size;
+        this.minZ = center.z - size;
+
+        this.maxX = center.x + size;
+        this.maxY = center.y + size;
+        this.maxZ = center.z + size;
+
+        this.stepDt = stepDt;
+
+        this.rootSize = size;
+        this.root = new OctreeNode(center, size, 0, null, this); 
+        this.backend = backend;
+        this.innerSearch = new CollisionTask(this);
+        this.outerSearch = new OuterCollisionTask(this);
+        this.leafs = new ArrayList<>();
+        this.searchQueue = new ArrayDeque<>();
+        this.owners = new OctreeNode[Math.max(store.capacity(), 16)];
+        this.slots = new int[owners.length];
+        this.moverBuffers = new WorkerBuffers<>(IntArray::new);
+        this.collectMovers = (from, to) -> {
+            IntArray movers = moverBuffers.local();
+            for (int i = from; i < to; i++) {
+                OctreeNode leaf = leafs.get(i);
+                for (int j = leaf.particles.size - 1; j >= 0; j--) {
+                    int particle = leaf.particles.items[j];
+                    if (!leaf.contains(store.x[particle], store.y[particle], store.z[particle])) {
+                        leaf.removeAt(j);
+                        movers.add(particle);
+                    }
+                }
+            }
+        };
+        this.buildNeighbors = (from, to) -> {
+            for (int i = from; i < to; i++) {
+                OctreeNode leaf = leafs.get(i);
+                leaf.neighbors.clear();
+                collectNeighbors(root, leaf, leaf.neighbors);
+            }
+        };
+        this.collectBorders = (from, to) -> {
+            for (int i = from; i < to; i++) {
+                leafs.get(i).collectBorderParticles();
+            }
+        };
+        this.innerPairsTested = new LongAdder();
+        this.outerPairsTested = new LongAdder();
+        this.outerContacts = new LongAdder();
+        this.occupancyScratch = new int[OCCUPANCY_BUCKETS];
+        this.leafOccupancy = new AtomicIntegerArray(OCCUPANCY_BUCKETS);
+        this.topologyChanged = true;
+    }
+
+     /**
+     * Resolves a mouse push event by accelerating nearby particles toward the given position.
+     *
+     * @param position The position of the mouse push
+     */
+    public void resolveMousePush(Vector position){
+        ArrayList<OctreeNode> nearNodes = getNearNodes(position);
+        for(OctreeNode node: nearNodes) {
+            for(int i = 0; i < node.particles.size; i++) {
+                int particle = node.particles.items[i];
+                if(position.distance(store.x[particle], store.y[particle], store.z[particle]) <= 10) {
+                    store.get(particle).accelerateToward(position);
+                }
+            }
+        }
+    }
+
+     /**
+     * Returns a list of octree nodes that are near the given position.
+     *
+     * @param position The position to check
+     * @return A list of nearby octree nodes
+     */
+    private ArrayList<OctreeNode> getNearNodes(Vector position){
+        ArrayList<OctreeNode> nearNodes = new ArrayList<>();
+        findNearNodes(nearNodes, root, position);
+        return nearNodes;
+    }
+
+     /**
+     * Finds the non-empty leaves whose centers lie near the given position.
+     * The search starts at the leaf containing the position and walks the cached neighbor lists,
+     * expanding only through leaves whose bounds come within reach of the position.
+     *
+     * @param nearNodes The list to add found nodes to
+     * @param root The root of the tree to search
+     * @param position The position to check against
+     */
+    private void findNearNodes(ArrayList<OctreeNode> nearNodes, OctreeNode root, Vector position) {
+        if(root == null) return;
+        updateNeighbors();
+
+        int mark = ++searchMark;
+        OctreeNode start = findTargetNode(root, position.x, position.y, position.z);
+        start.searchMark = mark;
+        searchQueue.add(start);
+
+        while(!searchQueue.isEmpty()) {
+            OctreeNode node = searchQueue.poll();
+            if(!node.isEmpty() && node.center.distance(position) <= 10) {
+                nearNodes.add(node);
+            }
+
+            for(OctreeNode neighbor : node.neighbors) {
+                if(neighbor.searchMark != mark && neighbor.distanceTo(position.x, position.y, position.z) <= 10) {
+                    neighbor.searchMark = mark;
+                    searchQueue.add(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the neighbor lists of the leaves as stale, called whenever nodes are split or merged.
+     */
+    public void markTopologyChanged() {
+        topologyChanged = true;
+    }
+
+    /**
+     * Rebuilds the cached leaf list and the neighbor list of every leaf if the topology changed since the last call.
+     * Each leaf collects all leaves touching it through a face, an edge or a corner, whatever their depth,
+     * and is numbered by its position in the list.
+     */
+    public void updateNeighbors() {
+        if (!topologyChanged) return;
+
+        leafs.clear();
+        collectLeafs(root, leafs);
+        for (int i = 0; i < leafs.size(); i++) {
+            leafs.get(i).leafIndex = i;
+        }
+        backend.parallelFor(leafs.size(), 8, buildNeighbors);
+        topologyChanged = false;
+        leafCount = leafs.size();
+    }
+
+    /**
+     * Recursively collects the leaves touching the given leaf.
+     *
+     * @param node The node to search
+     * @param leaf The leaf whose neighbors are collected
+     * @param neighbors The list receiving the neighbors
+     */
+    private void collectNeighbors(OctreeNode node, OctreeNode leaf, ArrayList<OctreeNode> neighbors) {
+        if (node == null || node == leaf || !node.touches(leaf)) return;
+
+        if (node.isLeaf) {
+            neighbors.add(node);
+        } else {
+            for (OctreeNode child : node.children) {
+                collectNeighbors(child, leaf, neighbors);
+            }
+        }
+    }
+
+    /**
+     * Counts the number of particles in the given octree node and its children.
+     *
+     * @param root The node to count particles in
+     * @return The total number of particles
+     */
+    public int countParticles(OctreeNode root) {
+        if (root == null) return 0;
+    
+        int count = 0;
+        if (root.isLeaf) {
+            count += root.particles.size; 
+        } else {
+
+            for (OctreeNode child : root.children) {
+                count += countParticles(child); 
+            }
+        }
+    
+        return count; 
+    }
+
+     /**
+     * Returns a list of all leaf nodes in the octree.
+     *
+     * @return A list of leaf nodes
+     */
+    public ArrayList<OctreeNode> getLeafs() {
+        ArrayList<OctreeNode> leafs = new ArrayList<>();
+        collectLeafs(root, leafs);
+        return leafs;
+    }
+
+     /**
+     * Recursively collects leaf nodes in the provided list.
+     *
+     * @param node The current node to check
+     * @param leafNodes The list to collect leaf nodes in
+     */
+    public void collectLeafs(OctreeNode node, ArrayList<OctreeNode> leafNodes) {
+        if (node == null) return;
+
+        if (node.isLeaf) {
+            leafNodes.add(node);
+        } else {
+            for (OctreeNode child : node.children) {
+                collectLeafs(child, leafNodes);
+            }
+        }
+    }
+
+    /**
+     * Adds a particle to the octree.
+     *
+     * @param particle The handle of the particle to add
+     */
+    public void addParticle(int particle) {
+        root.insert(particle);
+    }
+
+    @Override
+    public void insert(int particle) {
+        addParticle(particle);
+    }
+
+    @Override
+    public void rebin() {
+        updateSpatialLookup();
+    }
+
+    /**
+     * Reports the particles that changed leaf, see {@link #getLastMoved()}.
+     */
+    @Override
+    public int getLastRebinned() {
+        return lastMoved;
+    }
+
+    @Override
+    public int count() {
+        return countParticles(root);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    /**
+     * Returns the estimated collision work of a subtree, the exact particle count for leaves
+     * and the cached subtree count for inner nodes.
+     *
+     * @param node The root of the subtree
+     * @return The number of particles in the subtree
+     */
+    int workOf(OctreeNode node) {
+        return node.isLeaf ? node.particles.size : node.count;
+    }
+
+    /**
+     * Finds collisions between particles within the same leaf in parallel.
+     *
+     * @param sink The receiver of the colliding pairs
+     */
+    public void findInnerCollisionsParallel(PairSink sink) {
+        if(root == null) return;
+
+        innerPairsTested.reset();
+        innerSearch.search(sink);
+    }
+
+    /**
+     * Finds collisions between particles of adjacent leaves in parallel.
+     * The border particles of every leaf are refreshed first, then each pair of touching leaves
+     * is tested once by the leaf with the lower index, so every cross-leaf contact is emitted exactly once.
+     *
+     * @param sink The receiver of the colliding pairs
+     */
+    public void findOuterCollisionsParallel(PairSink sink) {
+        if(root == null) return;
+        updateNeighbors();
+
+        outerPairsTested.reset();
+        outerContacts.reset();
+        backend.parallelFor(leafs.size(), 8, collectBorders);
+        outerSearch.search(sink);
+    }
+
+    /**
+     * Adds the pairs tested by some work units to the statistics of the running inner pass.
+     *
+     * @param tested The number of particle pairs handed to the kernel
+     */
+    void recordInnerPairs(long tested) {
+        innerPairsTested.add(tested);
+    }
+
+    /**
+     * Returns the number of particle pairs within leaves tested during the last inner pass.
+     *
+     * @return The number of tested pairs
+     */
+    public long getInnerPairsTested() {
+        return innerPairsTested.sum();
+    }
+
+    /**
+     * Adds the work of one leaf to the statistics of the running outer pass.
+     *
+     * @param tested The number of particle pairs handed to the kernel
+     * @param contacts The number of contacts emitted
+     */
+    void recordOuterPairs(long tested, long contacts) {
+        outerPairsTested.add(tested);
+        outerContacts.add(contacts);
+    }
+
+    /**
+     * Returns the edge length of the leaves on the deepest level the limits allow.
+     * Contacts are only searched within a leaf and its adjacent leaves, so this must be at least the largest
+     * particle diameter plus any search margin, or pairs are missed.
+     *
+     * @return The smallest possible leaf edge
+     */
+    public float getMinLeafSize() {
+        return (float) Math.scalb((double) rootSize, -maxDepth);
+    }
+
+    /**
+     * Returns the number of leaves cached by the last neighbor update, the leaves visited by the outer pass.
+     * Safe to call from any thread, the count is published once the leaf list is rebuilt.
+     *
+     * @return The number of leaves
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Returns the depth of the tree after the last spatial lookup update.
+     * Safe to call from any thread, unlike {@link #totalDepth} which is recomputed in place during the update.
+     *
+     * @return The depth of the deepest leaf plus one
+     */
+    public int getTreeDepth() {
+        return publishedDepth;
+    }
+
+    /**
+     * Returns the bucket of the leaf occupancy distribution counting leaves with the given number of particles.
+     * Bucket 0 counts the empty leaves and bucket k the leaves holding from 2^(k-1) to 2^k - 1 particles,
+     * the last bucket also counts every fuller leaf.
+     *
+     * @param particles The number of particles in a leaf
+     * @return The index of the bucket
+     */
+    public static int occupancyBucket(int particles) {
+        int bucket = 32 - Integer.numberOfLeadingZeros(particles);
+        return Math.min(bucket, OCCUPANCY_BUCKETS - 1);
+    }
+
+    /**
+     * Returns the number of leaves per occupancy bucket after the last spatial lookup update, see {@link #occupancyBucket(int)}.
+     * Safe to call from any thread, the buckets may then mix two consecutive updates.
+     *
+     * @return A new array of {@link #OCCUPANCY_BUCKETS} leaf counts
+     */
+    public int[] getLeafOccupancy() {
+        int[] occupancy = new int[OCCUPANCY_BUCKETS];
+        for (int bucket = 0; bucket < OCCUPANCY_BUCKETS; bucket++) {
+            occupancy[bucket] = leafOccupancy.get(bucket);
+        }
+        return occupancy;
+    }
+
+    /**
+     * Returns the number of cross-leaf particle pairs tested during the last outer pass.
+     *
+     * @return The number of tested pairs
+     */
+    public long getOuterPairsTested() {
+        return outerPairsTested.sum();
+    }
+
+    /**
+     * Returns the number of unique cross-leaf contacts found during the last outer pass.
+     *
+     * @return The number of contacts
+     */
+    public long getOuterContacts() {
+        return outerContacts.sum();
+    }
+
+    @Override
+    public void findPairs(PairSink sink, float margin) {
+        pairMargin = margin;
+        findInnerCollisionsParallel(sink);
+        findOuterCollisionsParallel(sink);
+        pairMargin = 0;
+    }
+
+    /**
+     * Collects the particles within the sphere by descending into every node whose bounds overlap it.
+     * Nodes on the outer faces of the root are treated as open towards the walls, since particles
+     * outside the root bounds are kept in the leaves closest to them.
+     */
+    @Override
+    public void query(float x, float y, float z, float radius, IntArray out) {
+        collectInSphere(root, x, y, z, radius, out);
+    }
+
+    /**
+     * Recursively collects the particles within the sphere.
+     *
+     * @param node The node to search
+     * @param x The x-coordinate of the sphere center
+     * @param y The y-coordinate of the sphere center
+     * @param z The z-coordinate of the sphere center
+     * @param radius The radius of the sphere
+     * @param out The list receiving the handles
+     */
+    private void collectInSphere(OctreeNode node, float x, float y, float z, float radius, IntArray out) {
+        if (node == null || !overlapsBox(node, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius)) return;
+
+        if (node.isLeaf) {
+            float radiusSquared = radius * radius;
+            for (int i = 0; i < node.particles.size; i++) {
+                int particle = node.particles.items[i];
+                float dx = store.x[particle] - x, dy = store.y[particle] - y, dz = store.z[particle] - z;
+                if (dx * dx + dy * dy + dz * dz <= radiusSquared) out.add(particle);
+            }
+        } else {
+            for (OctreeNode child : node.children) {
+                collectInSphere(child, x, y, z, radius, out);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a node overlaps an axis aligned box, treating faces shared with the root as unbounded.
+     *
+     * @param node The node to check
+     * @param lowX The minimum x-coordinate of the box
+     * @param lowY The minimum y-coordinate of the box
+     * @param lowZ The minimum z-coordinate of the box
+     * @param highX The maximum x-coordinate of the box
+     * @param highY The maximum y-coordinate of the box
+     * @param highZ The maximum z-coordinate of the box
+     * @return true if the node overlaps the box
+     */
+    private boolean overlapsBox(OctreeNode node, float lowX, float lowY, float lowZ, float highX, float highY, float highZ) {
+        return (node.minX <= root.minX || node.minX <= highX) && (node.maxX >= root.maxX || node.maxX >= lowX)
+            && (node.minY <= root.minY || node.minY <= highY) && (node.maxY >= root.maxY || node.maxY >= lowY)
+            && (node.minZ <= root.minZ || node.minZ <= highZ) && (node.maxZ >= root.maxZ || node.maxZ >= lowZ);
+    }
+
+    /**
+     * Retrieves the border particles from the given adjacent nodes.
+     * 
+     * @param adjacentNodes The adjacent nodes to check.
+     * @return The handles of the border particles.
+     */
+    public IntArray getBorderParticles(ArrayList<OctreeNode> adjacentNodes) {
+        IntArray borderParticles = new IntArray();
+        for(OctreeNode node : adjacentNodes) {
+            for(int i = 0; i < node.particles.size; i++) {
+                int particle = node.particles.items[i];
+                if(node.isNearBorder(particle)) {
+                    borderParticles.add(particle);
+                }
+            }
+        }
+        return borderParticles;
+    }
+
+    /**
+     * Retrieves the border nodes from the octree.
+     * 
+     * @return A list of border nodes.
+     */
+    public ArrayList<OctreeNode> getBorderNodes() {
+        ArrayList<OctreeNode> borderNodes = new ArrayList<>();
+        findBorderNodes(root, borderNodes);
+        return borderNodes;
+    }
+
+    private void findBorderNodes(OctreeNode root, ArrayList<OctreeNode> borderNodes) {
+        if(root == null) return;
+
+        if(root.isLeaf && root.isBorder) {
+            borderNodes.add(root);
+        }
+
+        for(OctreeNode node : root.children) {
+            findBorderNodes(node, borderNodes);
+        }
+    }
+
+    /**
+     * Checks if two particles are colliding.
+     * 
+     * @param p1 The handle of the first particle.
+     * @param p2 The handle of the second particle.
+     * @return True if the particles are colliding, false otherwise.
+     */
+    public boolean checkCollision(int p1, int p2) {
+        float dx = store.x[p1] - store.x[p2];
+        float dy = store.y[p1] - store.y[p2];
+        float dz = store.z[p1] - store.z[p2];
+        float distanceSquared = dx * dx + dy * dy + dz * dz;
+        float radiusSum = store.radius[p1] + store.radius[p2];
+        return distanceSquared <= (radiusSum * radiusSum);
+    }
+
+    /**
+     * Records the leaf and the slot holding a particle, called by the nodes whenever a particle is stored.
+     * 
+     * @param particle The handle of the particle.
+     * @param leaf The leaf now holding the particle.
+     * @param slot The position of the particle inside the particle list of the leaf.
+     */
+    void track(int particle, OctreeNode leaf, int slot) {
+        if (particle >= owners.length) {
+            int capacity = Math.max(particle + 1, owners.length * 2);
+            owners = Arrays.copyOf(owners, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+        }
+        owners[particle] = leaf;
+        slots[particle] = slot;
+    }
+
+    /**
+     * Returns the position of a particle inside the particle list of its leaf.
+     * 
+     * @param particle The handle of the particle.
+     * @return The slot of the particle.
+     */
+    int slotOf(int particle) {
+        return slots[particle];
+    }
+
+    /**
+     * Returns the number of particles that changed leaf during the last spatial lookup update.
+     * 
+     * @return The number of relocated particles.
+     */
+    public int getLastMoved() {
+        return lastMoved;
+    }
+
+    /**
+     * Updates the spatial lookup for particles in the octree.
+     * The leaves are scanned in parallel and every particle is only checked against the bounds of its current leaf,
+     * particles that left are swap-removed and collected in the buffer of the scanning thread.
+     * The movers are then relocated one by one, starting from their old leaf and walking up only as far as needed,
+     * and finally sparse subtrees are merged back into single leaves.
+     */
+    public void updateSpatialLookup() {
+        if (root == null) return;
+        updateNeighbors();
+
+        backend.parallelFor(leafs.size(), 8, collectMovers);
+
+        int moved = 0;
+        for (int b = 0; b < moverBuffers.size(); b++) {
+            IntArray movers = moverBuffers.get(b);
+            for (int i = 0; i < movers.size; i++) {
+                int particle = movers.items[i];
+                relocate(particle, owners[particle]);
+            }
+            moved += movers.size;
+            movers.clear();
+        }
+        moverBuffers.retireTerminated();
+        lastMoved = moved;
+
+        totalDepth = 1;
+        coarsen(root);
+        Arrays.fill(occupancyScratch, 0);
+        countOccupancy(root);
+        for (int bucket = 0; bucket < OCCUPANCY_BUCKETS; bucket++) {
+            leafOccupancy.lazySet(bucket, occupancyScratch[bucket]);
+        }
+        publishedDepth = totalDepth;
+    }
+
+    /**
+     * Refreshes the subtree counts bottom-up and merges every inner node whose subtree fell below its merge threshold.
+     * 
+     * @param node The node to update.
+     * @return The number of particles in the subtree of the node.
+     */
+    private int coarsen(OctreeNode node) {
+        if (!node.isLeaf) {
+            int count = 0;
+            for (OctreeNode child : node.children) {
+                count += coarsen(child);
+            }
+            node.count = count;
+            if (count < node.mergeLimit) {
+                node.merge();
+            }
+        } else {
+            node.count = node.particles.size;
+        }
+
+        if (node.isLeaf) {
+            totalDepth = Math.max(totalDepth, node.depth + 1);
+        }
+        return node.count;
+    }
+
+    /**
+     * Counts the leaves of a subtree into the occupancy buckets of the running spatial lookup update.
+     * 
+     * @param node The root of the subtree.
+     */
+    private void countOccupancy(OctreeNode node) {
+        if (node.isLeaf) {
+            occupancyScratch[occupancyBucket(node.particles.size)]++;
+            return;
+        }
+        for (OctreeNode child : node.children) {
+            countOccupancy(child);
+        }
+    }
+
+    /**
+     * Inserts a particle that left the given node into the leaf now containing it.
+     * The search climbs through the parents until a node contains the particle and descends from there,
+     * the starting node may have been subdivided by an earlier relocation.
+     * 
+     * @param particle The handle of the particle to relocate.
+     * @param from The node the particle was removed from.
+     */
+    private void relocate(int particle, OctreeNode from) {
+        float x = store.x[particle], y = store.y[particle], z = store.z[particle];
+
+        OctreeNode node = from;
+        while (node.parent != null && !node.contains(x, y, z)) {
+            node = node.parent;
+        }
+        findTargetNode(node, x, y, z).insert(particle);
+    }
+
+    /**
+     * Finds the target node for a given particle.
+     * 
+     * @param root The root node to start searching from.
+     * @param particle The handle of the particle to find the target node for.
+     * @return The target node for the particle.
+     */
+    public OctreeNode findTargetNode(OctreeNode root, int particle) {    
+        return findTargetNode(root, store.x[particle], store.y[particle], store.z[particle]);
+    }
+
+    /**
+     * Finds the leaf containing the given coordinates, coordinates outside the tree map to the closest leaf.
+     * 
+     * @param root The root node to start searching from.
+     * @param x The x-coordinate to locate.
+     * @param y The y-coordinate to locate.
+     * @param z The z-coordinate to locate.
+     * @return The leaf containing the coordinates.
+     */
+    public OctreeNode findTargetNode(OctreeNode root, float x, float y, float z) {
+        OctreeNode node = root;
+        while (!node.isLeaf) {
+            node = node.children[node.getChildIndex(x, y, z)];
+        }
+        return node;
+    }
+    
+}
@@ -0,0 +1,72 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+
+/**
+ * Per-level occupancy thresholds of an {@link Octree}.
+ * A leaf on level {@code l} splits once it holds more than {@code split(l)} particles, and an inner node
+ * on level {@code l} merges its children back once its whole subtree holds fewer than {@code merge(l)}.
+ * Keeping the merge threshold below the split threshold gives the hysteresis that stops nodes from thrashing.
+ */
+public class OctreeLimits {
+
+    public final int maxDepth;  // Number of levels below the root, nodes on this level never split
+    private final int[] split;  // Split threshold of each level above maxDepth
+    private final int[] merge;  // Merge threshold of each level above maxDepth
+
+    /**
+     * Constructs the limits from explicit per-level thresholds, level 0 being the root.
+     *
+     * @param split The split threshold of each level, its length is the maximum depth of the tree.
+     * @param merge The merge threshold of each level, must not exceed the split threshold of the same level.
+     */
+    public OctreeLimits(int[] split, int[] merge) {
+        if (split.length != merge.length) {
+            throw new IllegalArgumentException("split and merge thresholds must cover the same levels");
+        }
+        for (int level = 0; level < split.length; level++) {
+            if (merge[level] > split[level]) {
+                throw new IllegalArgumentException("merge threshold above split threshold on level " + level);
+            }
+        }
+        this.maxDepth = split.length;
+        this.split = split.clone();
+        this.merge = merge.clone();
+    }
+
+    /**
+     * Constructs limits using the same thresholds on every level.
+     *
+     * @param maxDepth The number of levels below the root.
+     * @param split The split threshold of every level.
+     * @param mergeRatio The merge threshold as a fraction of the split threshold, between 0 and 1.
+     * @return The limits.
+     */
+    public static OctreeLimits uniform(int maxDepth, int split, float mergeRatio) {
+        int[] splits = new int[maxDepth];
+        int[] merges = new int[maxDepth];
+        Arrays.fill(splits, split);
+        Arrays.fill(merges, (int) (split * mergeRatio));
+        return new OctreeLimits(splits, merges);
+    }
+
+    /**
+     * Returns the number of particles a leaf on the given level holds before it splits.
+     *
+     * @param level The level of the node, 0 being the root.
+     * @return The split threshold, unbounded on the deepest level.
+     */
+    public int split(int level) {
+        return level < maxDepth ? split[level] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the subtree occupancy below which an inner node on the given level merges its children.
+     *
+     * @param level The level of the node, 0 being the root.
+     * @return The merge threshold.
+     */
+    public int merge(int level) {
+        return level < maxDepth ? merge[level] : 0;
+    }
+}
@@ -0,0 +1,346 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * OctreeNode represents a node in an octree used for spatial partitioning of particles.
+ * It can subdivide into 8 child nodes when the number of particles exceeds a limit.
+ */
+public class OctreeNode {
+    
+    public final int depth;  // The level of the node, 0 for the root
+    public final int particlesLimit, depthLimit;  // The limit on the number of particles a node can hold and the maximum depth of the octree node
+    public final int mergeLimit;  // Subtree occupancy below which the children are merged back into this node
+    public int count;  // Number of particles in the subtree, raised on insertion and refreshed by the tree after each spatial lookup update
+
+    public final float minX, minY, minZ;  // Minimum coordinates (X, Y, Z) defining the lower bounds of the octree node
+    public final float maxX, maxY, maxZ;  // Maximum coordinates (X, Y, Z) defining the upper bounds of the octree node
+
+    private final float size, halfSize, quarterSize;  // The size of the node and its subdivisions (half and quarter size for efficient calculations)
+
+    public final Vector center;  // The center point of the octree node, representing the average position of all particles within it
+
+    private final Octree tree;  // Reference to the octree structure that this node belongs to
+    public OctreeNode parent;  // The parent node in the octree, linking back to the higher level
+    public OctreeNode[] children;  // The child nodes in the octree, each representing a subdivision of the space
+    public IntArray particles;  // Handles of the particles contained within this node
+    int searchMark;  // Mark of the last neighbor search that visited this node
+    public final ArrayList<OctreeNode> neighbors;  // Leaves touching this leaf across all depths, rebuilt by the tree when its topology changes
+    public final IntArray borderParticles;  // Particles of this leaf close enough to its bounds to touch a neighbor, refreshed every outer pass
+    public int leafIndex;  // Position in the tree's cached leaf list, orders the leaves for the half-shell traversal
+
+    public boolean isLeaf, isBorder;  // Boolean flags: isLeaf indicates if this node has no children (leaf node), isBorder indicates if it's near the boundary of the space
+
+    /**
+     * Constructs an OctreeNode with the specified parameters.
+     * 
+     * The occupancy limits are taken from the tree for the level of the node.
+     * 
+     * @param center The center of the node.
+     * @param size The size of the node.
+     * @param depth The level of the node, 0 for the root.
+     * @param parent The parent of this node in the octree.
+     * @param tree The octree structure this node belongs to.
+     */
+    public OctreeNode(Vector center, float size, int depth, OctreeNode parent, Octree tree) {
+        this.tree = tree;
+        this.parent = parent;
+        this.depth = depth;
+        this.particlesLimit = tree.limits.split(depth);
+        this.mergeLimit = tree.limits.merge(depth);
+        this.depthLimit = tree.limits.maxDepth - depth;
+
+        this.center = center;
+        this.size = size;
+        
+        this.particles = new IntArray(); 
+        this.neighbors = new ArrayList<>();
+        this.borderParticles = new IntArray();
+        this.children = new OctreeNode[8];
+
+        this.isLeaf = true;
+
+        this.halfSize = this.size / 2f;
+        this.quarterSize = this.size / 4f;
+
+        this.minX = center.x - halfSize;
+        this.minY = center.y - halfSize;
+        this.minZ = center.z - halfSize;
+
+        this.maxX = center.x + halfSize;
+        this.maxY = center.y + halfSize;
+        this.maxZ = center.z + halfSize;
+
+        this.isBorder = isBorder();
+    }
+
+    /**
+     * Checks if this node is on the boundary of the octree.
+     * 
+     * @return true if the node is on the boundary, false otherwise.
+     */
+    private boolean isBorder() {
+        return !(
+            minX <= tree.minX || maxX >= tree.maxX ||
+            minY <= tree.minY || maxY >= tree.maxY ||
+            minZ <= tree.minZ || maxZ >= tree.maxZ
+        );
+    }
+
+    /**
+     * Checks if this node is empty (no particles).
+     * 
+     * @return true if the node contains no particles, false otherwise.
+     */
+    public boolean isEmpty() {
+        return particles.size == 0;
+    }
+
+    /**
+     * Inserts a particle into this node. If the number of particles exceeds the limit, 
+     * the node will subdivide and redistribute the particles among the children.
+     * 
+     * @param particle The handle of the particle to insert into the node.
+     */
+    public void insert(int particle) {
+        count++;
+        if (isLeaf) {
+            tree.track(particle, this, particles.size);
+            particles.add(particle);
+    
+            if (particles.size > particlesLimit && depthLimit > 0) {
+                subdivide();
+                redistributeParticles();
+            }
+        } else {
+            if (children[0] == null) {
+                subdivide();
+            }
+            int i = getChildIndex(tree.store, particle);
+            children[i].insert(particle);
+        }
+    }
+    
+    /**
+     * Removes the particle stored at the given slot by moving the last particle of the node into its place.
+     * 
+     * @param slot The position of the particle inside {@link #particles}.
+     */
+    public void removeAt(int slot) {
+        int last = particles.size - 1;
+        if (slot != last) {
+            int moved = particles.items[last];
+            particles.items[slot] = moved;
+            tree.track(moved, this, slot);
+        }
+        particles.size = last;
+    }
+
+    /**
+     * Removes a particle from this leaf using the slot recorded by the tree.
+     * 
+     * @param particle The handle of the particle to remove.
+     */
+    public void remove(int particle) {
+        removeAt(tree.slotOf(particle));
+    }
+
+    /**
+     * Subdivides this node into 8 child nodes.
+     */
+    public void subdivide() {
+        for(int i = 0; i < 8; i++) {
+            float xOffSet = ((i & 1) == 0) ? -quarterSize : quarterSize;
+            float yOffSet = ((i & 2) == 0) ? -quarterSize : quarterSize;
+            float zOffSet = ((i & 4) == 0) ? -quarterSize : quarterSize;
+
+            Vector childCenter = new Vector(
+                center.x + xOffSet, 
+                center.y + yOffSet,  
+                center.z + zOffSet
+            );
+            children[i] = new OctreeNode(childCenter, halfSize, depth + 1, this, this.tree);
+        }
+        isLeaf = false; 
+        neighbors.clear();
+        tree.markTopologyChanged();
+    }
+
+    /**
+     * Collapses the subtree of this node back into a single leaf.
+     * The particles of every descendant leaf move into this node.
+     */
+    public void merge() {
+        if (isLeaf) return;
+
+        particles.clear();
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != null) {
+                children[i].drainInto(this);
+                children[i] = null;
+            }
+        }
+        isLeaf = true;
+        tree.markTopologyChanged();
+    }
+
+    /**
+     * Moves the particles of this subtree into the given leaf.
+     * 
+     * @param target The leaf receiving the particles.
+     */
+    private void drainInto(OctreeNode target) {
+        if (isLeaf) {
+            for (int i = 0; i < particles.size; i++) {
+                int particle = particles.items[i];
+                tree.track(particle, target, target.particles.size);
+                target.particles.add(particle);
+            }
+            particles.clear();
+        } else {
+            for (OctreeNode child : children) {
+                if (child != null) child.drainInto(target);
+            }
+        }
+        neighbors.clear();
+    }
+
+    /**
+     * Redistributes the particles of this node to its child nodes.
+     */
+    public void redistributeParticles() {
+        IntArray temp = new IntArray(particles);
+        particles.clear();
+    
+        for(int j = 0; j < temp.size; j++) {
+            int particle = temp.items[j];
+            int i = getChildIndex(tree.store, particle);
+            children[i].insert(particle);
+        }
+
+        if (particles.size > particlesLimit) {
+            redistributeParticles();
+        }
+    } 
+
+    /**
+     * Returns the index of the child node for the given position.
+     * 
+     * @param position The position to determine the child index for.
+     * @return The index of the child node (0 to 7).
+     */
+    public int getChildIndex(Vector position) {
+        return getChildIndex(position.x, position.y, position.z);
+    }
+
+    /**
+     * Returns the index of the child node for the given coordinates.
+     * 
+     * @param x The x-coordinate to determine the child index for.
+     * @param y The y-coordinate to determine the child index for.
+     * @param z The z-coordinate to determine the child index for.
+     * @return The index of the child node (0 to 7).
+     */
+    public int getChildIndex(float x, float y, float z) {
+        int index = 0;
+        if (x >= center.x) index |= 1;
+        if (y >= center.y) index |= 2;
+        if (z >= center.z) index |= 4;
+        return index;
+    }
+
+    /**
+     * Returns the index of the child node for the position of a stored particle.
+     * 
+     * @param store The store holding the particle.
+     * @param particle The handle of the particle.
+     * @return The index of the child node (0 to 7).
+     */
+    public int getChildIndex(ParticleStore store, int particle) {
+        return getChildIndex(store.x[particle], store.y[particle], store.z[particle]);
+    }
+
+    /**
+     * Checks if this node touches or overlaps another octree node, including contact along an edge or a corner.
+     * Nodes of different depths are compared by their bounds, so mixed-size neighbors are matched as well.
+     * 
+     * @param node The octree node to check.
+     * @return true if the closed bounds of both nodes intersect, false otherwise.
+     */
+    public boolean touches(OctreeNode node) {
+        float epsilon = Math.min(size, node.size) * 1e-4f;
+        return maxX + epsilon >= node.minX && minX - epsilon <= node.maxX
+            && maxY + epsilon >= node.minY && minY - epsilon <= node.maxY
+            && maxZ + epsilon >= node.minZ && minZ - epsilon <= node.maxZ;
+    }
+
+    /**
+     * Checks if the given coordinates belong to this node, using the same half-open split as {@link #getChildIndex(float, float, float)}.
+     * Faces lying on the bounds of the root are open, since particles outside the tree are kept in the closest leaf.
+     * 
+     * @param x The x-coordinate to check.
+     * @param y The y-coordinate to check.
+     * @param z The z-coordinate to check.
+     * @return true if the coordinates fall into this node, false otherwise.
+     */
+    public boolean contains(float x, float y, float z) {
+        OctreeNode root = tree.root;
+        return (x >= minX || minX <= root.minX) && (x < maxX || maxX >= root.maxX)
+            && (y >= minY || minY <= root.minY) && (y < maxY || maxY >= root.maxY)
+            && (z >= minZ || minZ <= root.minZ) && (z < maxZ || maxZ >= root.maxZ);
+    }
+
+    /**
+     * Computes the distance from a point to the bounds of this node, zero for points inside.
+     * 
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param z The z-coordinate of the point.
+     * @return The distance to the closest point of the node.
+     */
+    public float distanceTo(float x, float y, float z) {
+        float dx = Math.max(0, Math.max(minX - x, x - maxX));
+        float dy = Math.max(0, Math.max(minY - y, y - maxY));
+        float dz = Math.max(0, Math.max(minZ - z, z - maxZ));
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Refills {@link #borderParticles} with the particles of this node that are near its border.
+     */
+    public void collectBorderParticles() {
+        borderParticles.clear();
+        for(int i = 0; i < particles.size; i++) {
+            int particle = particles.items[i];
+            if(isNearBorder(particle)) {
+                borderParticles.add(particle);
+            }
+        }
+    }
+
+    /**
+     * Checks if a given particle is near the border of this node.
+     * A particle is considered near the border if it could touch a particle of another node,
+     * that is if its distance to the node's boundary is at most its radius plus the largest radius in the store
+     * and the margin of the running collision search. The positions do not change between binning and the search,
+     * so this reach is exact.
+     * 
+     * @param particle The handle of the particle to check.
+     * @return true if the particle is near the border of this node, false otherwise.
+     */
+    public boolean isNearBorder(int particle) {
+        ParticleStore store = tree.store;
+        float margin = store.radius[particle] + store.maxRadius() + tree.pairMargin;
+        float x = store.x[particle], y = store.y[particle], z = store.z[particle];
+        
+        return (
+            x - margin <= minX || x + margin >= maxX ||
+            y - margin <= minY || y + margin >= maxY ||
+            z - margin <= minZ || z + margin >= maxZ
+        );
+    }
+}
@@ -0,0 +1,202 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.ArrayList;
+
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.KernelScratch;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * The OuterCollisionTask checks for collisions between particles of adjacent leaves of an octree.
+ * The border particles of each leaf are tested against those of the neighboring leaves cached on that leaf
+ * by {@link Octree#updateNeighbors()}, following a half-shell order.
+ * Like {@link CollisionTask}, the tree is split into work units first: small subtrees form one unit and leaves
+ * testing many pairs are split into ranges of their own border particles, then the units run on the backend of the tree.
+ */
+public class OuterCollisionTask implements RangeAction {
+
+    private final Octree tree;  // The octree structure used for spatial partitioning in collision detection and other space-related operations.
+    private final ArrayList<OctreeNode> units;  // The subtree or leaf tested by every work unit.
+    private final IntArray ranges;  // First and end border particle of every unit, -1 for a whole subtree.
+    private PairSink sink;  // The receiver of pairs of particles that are in collision during a search.
+
+    /**
+     * Constructor for creating an OuterCollisionTask, reused by every search.
+     *
+     * @param octree The octree used for particle partitioning.
+     */
+    public OuterCollisionTask(Octree octree) {
+        this.tree = octree;
+        this.units = new ArrayList<>();
+        this.ranges = new IntArray();
+    }
+
+    /**
+     * Checks if two particles are colliding based on their positions and radii.
+     *
+     * @param p1 The handle of the first particle.
+     * @param p2 The handle of the second particle.
+     * @return True if the particles are colliding, false otherwise.
+     */
+    public boolean checkCollision(int p1, int p2) {
+        return tree.checkCollision(p1, p2);
+    }
+
+    /**
+     * Splits the tree into work units, runs them on the backend of the tree and returns once all of them completed.
+     * The border particles of every leaf must be up to date.
+     *
+     * @param sink The receiver of collision pairs for processing.
+     */
+    public void search(PairSink sink) {
+        units.clear();
+        ranges.clear();
+        plan(tree.root);
+
+        this.sink = sink;
+        tree.backend.parallelFor(units.size(), 1, this);
+        this.sink = null;
+    }
+
+    /**
+     * Runs the work units in the given range.
+     */
+    @Override
+    public void run(int from, int to) {
+        PairSink local = sink.local();
+        for(int k = from; k < to; k++) {
+            OctreeNode node = units.get(k);
+            int start = ranges.items[2 * k];
+            if(start < 0) {
+                collideSubtree(node, local);
+            } else {
+                collideLeaf(node, start, ranges.items[2 * k + 1], local);
+            }
+        }
+    }
+
+    /**
+     * Adds the work units of a subtree. A subtree holding few particles becomes one unit, the border particles
+     * of a leaf are halved while they test too many pairs for one unit, and other inner nodes are split by child.
+     * Neighbors with a lower index test a leaf themselves, so each pair of leaves is visited by one unit only.
+     *
+     * @param node The root of the subtree.
+     */
+    private void plan(OctreeNode node) {
+        if(node == null || tree.workOf(node) == 0) return;
+
+        if(node.isLeaf) {
+            int size = node.borderParticles.size;
+            if(size == 0) return;
+            planRange(node, 0, size, (long) tree.leafSplitThreshold * tree.leafSplitThreshold / 2 / Math.max(1, outerParticles(node)));
+        } else if(tree.workOf(node) <= tree.forkThreshold) {
+            addUnit(node, -1, -1);
+        } else {
+            for(OctreeNode child : node.children) {
+                plan(child);
+            }
+        }
+    }
+
+    /**
+     * Halves a range of border particles of a leaf until every part is small enough for one unit.
+     *
+     * @param leaf The leaf.
+     * @param start The first border particle.
+     * @param end The end of the range, exclusive.
+     * @param limit The largest number of border particles of one unit.
+     */
+    private void planRange(OctreeNode leaf, int start, int end, long limit) {
+        if(end - start > 1 && end - start > limit) {
+            int middle = (start + end) >>> 1;
+            planRange(leaf, start, middle, limit);
+            planRange(leaf, middle, end, limit);
+        } else {
+            addUnit(leaf, start, end);
+        }
+    }
+
+    /**
+     * Appends a work unit.
+     *
+     * @param node The subtree or leaf of the unit.
+     * @param start The first border particle, -1 for the whole subtree.
+     * @param end The end of the range, exclusive.
+     */
+    private void addUnit(OctreeNode node, int start, int end) {
+        units.add(node);
+        ranges.add(start);
+        ranges.add(end);
+    }
+
+    /**
+     * Tests the border particles of every leaf of the subtree on the calling thread.
+     *
+     * @param node The root of the subtree.
+     * @param local The sink of the calling worker.
+     */
+    private void collideSubtree(OctreeNode node, PairSink local) {
+        if(node == null) return;
+
+        if(node.isLeaf) {
+            if(node.borderParticles.size > 0) collideLeaf(node, 0, node.borderParticles.size, local);
+        } else {
+            for(OctreeNode child : node.children) {
+                collideSubtree(child, local);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of border particles of the neighbors tested by the given leaf.
+     *
+     * @param leaf The leaf.
+     * @return The number of border particles of the neighbors with a higher leaf index.
+     */
+    private static int outerParticles(OctreeNode leaf) {
+        int count = 0;
+        for(OctreeNode neighbor : leaf.neighbors) {
+            if(neighbor.leafIndex > leaf.leafIndex) count += neighbor.borderParticles.size;
+        }
+        return count;
+    }
+
+    /**
+     * Gathers the border particles of a leaf into contiguous scratch arrays and tests the range of them
+     * against the border particles of every neighbor with a higher leaf index with the active kernel.
+     *
+     * @param leaf The leaf whose border particles are tested.
+     * @param start The first tested border particle.
+     * @param end The end of the tested range, exclusive.
+     * @param local The sink of the calling worker.
+     */
+    private void collideLeaf(OctreeNode leaf, int start, int end, PairSink local) {
+        IntArray own = leaf.borderParticles;
+        ParticleStore store = tree.store;
+        CollisionKernel kernel = tree.kernel;
+        KernelScratch scratch = KernelScratch.get();
+        scratch.gather(store, own.items, end);
+
+        long tested = 0, contacts = 0;
+        for(OctreeNode neighbor : leaf.neighbors) {
+            if(neighbor.leafIndex <= leaf.leafIndex) continue;
+
+            IntArray outer = neighbor.borderParticles;
+            for(int i = 0; i < outer.size; i++) {
+                int p2 = outer.items[i];
+                int hits = kernel.overlaps(
+                    store.x[p2], store.y[p2], store.z[p2], store.radius[p2] + tree.pairMargin,
+                    scratch.x, scratch.y, scratch.z, scratch.r,
+                    start, end, scratch.hits);
+                for(int h = 0; h < hits; h++) {
+                    local.addPair(own.items[scratch.hits[h]], p2);
+                }
+                contacts += hits;
+            }
+            tested += (long) outer.size * (end - start);
+        }
+        tree.recordOuterPairs(tested, contacts);
+    }
+}
@@ -0,0 +1,27 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * Receives candidate contacts found by a {@link BroadPhase}.
+ * Broad phases call it concurrently from their worker threads, so implementations must be thread-safe,
+ * or hand every worker its own sink through {@link #local()}.
+ */
+public interface PairSink {
+
+    /**
+     * Accepts a pair of overlapping particles.
+     *
+     * @param p1 The handle of the first particle.
+     * @param p2 The handle of the second particle.
+     */
+    void addPair(int p1, int p2);
+
+    /**
+     * Returns the sink the calling worker should append to, fetched once per chunk of work.
+     * Sinks with per-thread storage return the storage of the calling thread.
+     *
+     * @return The sink of the calling thread, this sink by default.
+     */
+    default PairSink local() {
+        return this;
+    }
+}
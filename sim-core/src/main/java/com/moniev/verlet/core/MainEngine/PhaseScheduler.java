@@ -0,0 +1,180 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+
+import com.moniev.verlet.core.Telemetry.FlightRecorderEvents;
+
+/**
+ * Runs the phases of a substep on an {@link ExecutionBackend} with a join point after every phase.
+ * Parallel phases are split into about one chunk per worker, and the wall time spent in every phase
+ * is accumulated and recorded into a {@link LatencyHistogram} per phase, so the speedup and the tail latency
+ * of each phase can be measured separately. Every run is also emitted as a Flight Recorder event while a recording is on.
+ */
+public class PhaseScheduler {
+
+    private static final int MIN_GRAIN = 256;  // Smallest chunk worth handing to a worker
+
+    private final ExecutionBackend backend;  // Backend running the parallel phases
+    private final boolean ownsBackend;  // Whether the backend was created by this scheduler and is stopped by shutdown()
+    private final int parallelism;  // Number of workers of the backend
+    private final long[] phaseNanos;  // Wall time accumulated by each phase since the last reset
+    private final long[] phaseRuns;  // Number of runs of each phase since the last reset
+    private final LatencyHistogram[] histograms;  // Latency of the runs of each phase since the last reset
+
+    /**
+     * Constructs a scheduler with the given number of workers, capped at the number of available cores.
+     *
+     * @param threads The requested number of workers.
+     */
+    public PhaseScheduler(int threads) {
+        this(new ForkJoinBackend(Math.max(1, Math.min(threads, Runtime.getRuntime().availableProcessors()))), true);
+    }
+
+    /**
+     * Constructs a scheduler running the phases on the given backend.
+     *
+     * @param backend The backend running the parallel phases.
+     * @param ownsBackend true if {@link #shutdown()} should stop the backend.
+     */
+    public PhaseScheduler(ExecutionBackend backend, boolean ownsBackend) {
+        this.backend = backend;
+        this.ownsBackend = ownsBackend;
+        this.parallelism = backend.getParallelism();
+        this.phaseNanos = new long[SimulationPhase.values().length];
+        this.phaseRuns = new long[SimulationPhase.values().length];
+        this.histograms = new LatencyHistogram[SimulationPhase.values().length];
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+    }
+
+    /**
+     * Runs a phase on the calling thread and returns once it completed.
+     * The body may itself run parallel loops on {@link #backend()}.
+     *
+     * @param phase The phase being run.
+     * @param body The work of the phase.
+     */
+    public void run(SimulationPhase phase, Runnable body) {
+        Object event = FlightRecorderEvents.beginPhase();
+        long start = System.nanoTime();
+        body.run();
+        record(phase, start);
+        FlightRecorderEvents.endPhase(event, phase);
+    }
+
+    /**
+     * Runs a phase over the index range [0, count) split into chunks across the workers,
+     * and returns once every chunk completed.
+     *
+     * @param phase The phase being run.
+     * @param count The number of indices to process.
+     * @param action The work applied to every chunk.
+     */
+    public void parallelFor(SimulationPhase phase, int count, RangeAction action) {
+        Object event = FlightRecorderEvents.beginPhase();
+        long start = System.nanoTime();
+        parallelFor(count, action);
+        record(phase, start);
+        FlightRecorderEvents.endPhase(event, phase);
+    }
+
+    /**
+     * Splits the index range [0, count) into about one chunk per worker and waits for all of them.
+     * Small ranges run on the calling thread.
+     *
+     * @param count The number of indices to process.
+     * @param action The work applied to every chunk.
+     */
+    public void parallelFor(int count, RangeAction action) {
+        if (count <= 0) return;
+
+        int grain = Math.max(MIN_GRAIN, (count + parallelism - 1) / parallelism);
+        backend.parallelFor(count, grain, action);
+    }
+
+    /**
+     * Runs the given number of tasks in parallel, one per index, and waits for all of them.
+     *
+     * @param tasks The number of tasks.
+     * @param action The work of the tasks, called with single index ranges.
+     */
+    public void forEachTask(int tasks, RangeAction action) {
+        backend.parallelFor(tasks, 1, action);
+    }
+
+    /**
+     * Adds the time elapsed since the given start to a phase.
+     *
+     * @param phase The phase that ran.
+     * @param start The value of {@link System#nanoTime()} when the phase started.
+     */
+    private void record(SimulationPhase phase, long start) {
+        long elapsed = System.nanoTime() - start;
+        phaseNanos[phase.ordinal()] += elapsed;
+        phaseRuns[phase.ordinal()]++;
+        histograms[phase.ordinal()].record(elapsed);
+    }
+
+    /**
+     * Returns the wall time spent in a phase since the last reset.
+     *
+     * @param phase The phase.
+     * @return The accumulated time in nanoseconds.
+     */
+    public long getPhaseNanos(SimulationPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns how many times a phase ran since the last reset.
+     *
+     * @param phase The phase.
+     * @return The number of runs.
+     */
+    public long getPhaseRuns(SimulationPhase phase) {
+        return phaseRuns[phase.ordinal()];
+    }
+
+    /**
+     * Returns the latency histogram of a phase, recorded by the thread running the phases.
+     *
+     * @param phase The phase.
+     * @return The histogram of the run durations since the last reset.
+     */
+    public LatencyHistogram getHistogram(SimulationPhase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Clears the accumulated phase timings. Must be called by the thread running the phases.
+     */
+    public void resetTimings() {
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(phaseRuns, 0);
+        for (LatencyHistogram histogram : histograms) histogram.reset();
+    }
+
+    /**
+     * Returns the number of workers.
+     *
+     * @return The parallelism of the pool.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the backend, for phases that run their own parallel loops.
+     *
+     * @return The backend.
+     */
+    public ExecutionBackend backend() {
+        return backend;
+    }
+
+    /**
+     * Stops the workers if the backend was created by this scheduler.
+     */
+    public void shutdown() {
+        if (ownsBackend) backend.shutdown();
+    }
+}
@@ -0,0 +1,15 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * A unit of work over a contiguous index range, used to split loops over particles or cells into chunks.
+ */
+public interface RangeAction {
+
+    /**
+     * Processes the indices in the given range.
+     *
+     * @param from The first index to process, inclusive.
+     * @param to The last index to process, exclusive.
+     */
+    void run(int from, int to);
+}
@@ -0,0 +1,45 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork-join task that splits an index range in halves until it is no larger than the grain size
+ * and then hands each chunk to a {@link RangeAction}.
+ */
+public class RangeTask extends RecursiveAction {
+    private final int from, to;  // The index range covered by this task
+    private final int grain;  // The largest range processed without splitting
+    private final RangeAction action;  // The work applied to every chunk
+
+    /**
+     * Constructs a RangeTask for the given range.
+     *
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @param grain the largest chunk processed sequentially
+     * @param action the work applied to every chunk
+     */
+    public RangeTask(int from, int to, int grain, RangeAction action) {
+        this.from = from;
+        this.to = to;
+        this.grain = Math.max(1, grain);
+        this.action = action;
+    }
+
+    /**
+     * Processes the range directly when it is small enough, otherwise splits it in two halves.
+     */
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            if (to > from) action.run(from, to);
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        RangeTask left = new RangeTask(from, middle, grain, action);
+        left.fork();
+        new RangeTask(middle, to, grain, action).compute();
+        left.join();
+    }
+}
@@ -0,0 +1,17 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * The phases of one simulation substep, in the order the {@link PhaseScheduler} runs them.
+ * Every phase completes before the next one starts.
+ */
+public enum SimulationPhase {
+    GRAVITY,      // Accumulates gravity into the particle accelerations
+    BOUNDARY,     // Projects the particles back inside the walls
+    BROAD_PHASE,  // Finds the candidate contacts, for broad phases other than a bare octree
+    INNER_DETECTION,  // Finds the contacts within every octree leaf, see {@link CollisionTask}
+    OUTER_DETECTION,  // Finds the contacts across adjacent octree leaves, see {@link OuterCollisionTask}
+    SOLVE,        // Resolves the contacts
+    INTEGRATE,    // Advances the particles by one Verlet step, together with gravity and walls when the pass is fused
+    REBIN,        // Moves the particles into the bins matching their new positions, or exchanges them between slabs
+    SLAB_STEP     // Runs collisions, solve and integration of every slab of a domain decomposition
+}
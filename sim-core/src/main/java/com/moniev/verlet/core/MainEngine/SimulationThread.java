@@ -0,0 +1,83 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps an {@link Engine} on a dedicated thread at the engine's own fixed rate and publishes every step
+ * into a {@link SnapshotBuffer}, so the render thread can draw while the next step is being simulated.
+ * The render thread must not touch the engine's particle state while the simulation thread is running.
+ */
+public class SimulationThread extends Thread {
+
+    private static final int MAX_CATCH_UP = 4;  // Steps the thread may run back to back after falling behind
+
+    private final Engine engine;  // The engine being stepped
+    public final SnapshotBuffer snapshots;  // Positions published after every step
+
+    private volatile boolean running;  // Cleared to stop the thread
+    private volatile boolean paused;  // Set to stop stepping without stopping the thread
+    private int loop;  // Number of steps run so far, also the index of the next spawned particle
+
+    /**
+     * Constructs a simulation thread for the given engine, call {@link #start()} to run it.
+     *
+     * @param engine The engine to step.
+     */
+    public SimulationThread(Engine engine) {
+        super("verlet-simulation");
+        this.engine = engine;
+        this.snapshots = new SnapshotBuffer(engine.particlesLimit);
+        this.running = true;
+        setDaemon(true);
+    }
+
+    /**
+     * Runs steps of {@code mFrameDt} seconds, spawning particles and publishing a snapshot after each one,
+     * and sleeps until the next step is due. After falling behind by more than a few steps the schedule is reset
+     * instead of running a long burst of steps.
+     */
+    @Override
+    public void run() {
+        long stepNanos = (long) (engine.mFrameDt * 1e9);
+        long next = System.nanoTime();
+
+        while (running) {
+            int steps = 0;
+            while (System.nanoTime() >= next && steps < MAX_CATCH_UP) {
+                if (!paused) {
+                    engine.addParticles(loop++);
+                    engine.update();
+                    snapshots.publish(engine.store);
+                }
+                next += stepNanos;
+                steps++;
+            }
+            if (steps == MAX_CATCH_UP) next = System.nanoTime();
+
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Pauses or resumes stepping.
+     *
+     * @param paused true to stop stepping.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Stops the thread and waits for the running step to finish.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(this);
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * An {@link ExecutionBackend} running every loop on the calling thread, for profiling
+ * and for hosts running many engines side by side.
+ */
+public class SingleThreadBackend implements ExecutionBackend {
+
+    @Override
+    public int getParallelism() {
+        return 1;
+    }
+
+    @Override
+    public void parallelFor(int count, int grain, RangeAction action) {
+        if (count > 0) action.run(0, count);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
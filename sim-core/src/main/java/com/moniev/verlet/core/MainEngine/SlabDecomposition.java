@@ -0,0 +1,524 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Splits the world into slabs along the x axis, one per worker, each owning the particles inside it.
+ * A worker runs the whole substep of its slab: it bins its own particles together with ghost copies of the
+ * particles of the neighboring slabs lying within one diameter of its faces, resolves the contacts and advances
+ * its own particles. Only owned particles are ever written, a contact with a ghost moves the owned side only
+ * and the owner of the ghost applies the mirrored half, so the workers never share a written particle.
+ * Between substeps the owners hand over the particles that crossed a face, refresh the ghost copies and move
+ * the slab faces when the particle counts of the slabs drift apart.
+ */
+public class SlabDecomposition {
+
+    private static final int HISTOGRAM_BINS = 1024;  // Bins of the x histogram placing the faces of rebalanced slabs
+    private static final float MAX_IMBALANCE = 1.25f;  // Ratio of the largest slab to the average slab triggering a rebalance
+    private static final int REBALANCE_INTERVAL = 16;  // Exchanges between two rebalances, bounds the cost of unbalanceable scenes
+
+    public final ParticleStore store;  // The store holding the state of every particle
+    public final Integrator integrator;  // Applies gravity, walls and the Verlet step to the owned particles
+    public final ExecutionBackend backend;  // Backend running one slab per task
+
+    private final float minX;  // Lower end of the world along the slab axis
+    private final float minY, minZ;  // Lower corner of the world on the other axes
+    private final float extent;  // Edge length of the world
+    private final float[] faces;  // Position of the faces along x, slab s spans [faces[s], faces[s + 1])
+    private final Slab[] slabs;  // The slabs, ordered along x
+    private final int[][] histograms;  // Per-slab x histograms gathered while rebalancing
+    private final int[] histogram;  // Sum of the per-slab histograms
+
+    private float cellSize;  // Edge of the binning cells and width of the ghost layers, one particle diameter or more in large worlds
+    private float stepDt;  // Time step of the running substep
+    private int rebalances;  // Number of times the faces were moved
+    private int sinceRebalance;  // Exchanges since the faces were last moved
+    private int lastMigrated;  // Particles that changed slab during the last exchange
+
+    private final RangeAction collectLeavers;  // Removes the particles that left a range of slabs
+    private final RangeAction collectGhosts;  // Copies the ghost layers of a range of slabs
+    private final RangeAction countPositions;  // Builds the x histograms of a range of slabs
+    private final RangeAction stepSlabs;  // Runs the substep of a range of slabs
+
+    /**
+     * Constructs a decomposition of the world into the given number of equally wide slabs.
+     *
+     * @param store The store holding the particles
+     * @param integrator The integrator advancing the particles, its walls bound the world
+     * @param backend The backend running the slabs, shut down by its owner
+     * @param slabCount The number of slabs, usually one per worker
+     */
+    public SlabDecomposition(ParticleStore store, Integrator integrator, ExecutionBackend backend, int slabCount) {
+        this.store = store;
+        this.integrator = integrator;
+        this.backend = backend;
+        this.minX = integrator.minX;
+        this.minY = integrator.minY;
+        this.minZ = integrator.minZ;
+        this.extent = integrator.maxX - integrator.minX;
+
+        int count = Math.max(1, slabCount);
+        this.faces = new float[count + 1];
+        this.slabs = new Slab[count];
+        this.histograms = new int[count][HISTOGRAM_BINS];
+        this.histogram = new int[HISTOGRAM_BINS];
+        for (int s = 0; s <= count; s++) {
+            faces[s] = minX + extent * s / count;
+        }
+        for (int s = 0; s < count; s++) {
+            slabs[s] = new Slab(s);
+        }
+
+        this.collectLeavers = (from, to) -> {
+            for (int s = from; s < to; s++) slabs[s].collectLeavers();
+        };
+        this.collectGhosts = (from, to) -> {
+            for (int s = from; s < to; s++) slabs[s].collectGhosts();
+        };
+        this.countPositions = (from, to) -> {
+            for (int s = from; s < to; s++) slabs[s].countPositions(histograms[s]);
+        };
+        this.stepSlabs = (from, to) -> {
+            for (int s = from; s < to; s++) slabs[s].step(stepDt);
+        };
+    }
+
+    /**
+     * Hands a new particle to the slab containing it.
+     *
+     * @param particle The handle of the particle
+     */
+    public void insert(int particle) {
+        slabs[slabOf(store.x[particle])].owned.add(particle);
+    }
+
+    /**
+     * Runs the barrier between two substeps: moves the faces if the slabs are unbalanced, hands the particles
+     * that crossed a face to their new owner and copies the ghost layers of every slab.
+     * The cells grow beyond one diameter when the world would need more cells than the particle capacity allows, as in {@link UniformGrid}.
+     */
+    public void exchange() {
+        float diameter = Math.max(2 * store.maxRadius(), 1e-3f);
+        int cells = UniformGrid.cellsPerAxis(extent, diameter, UniformGrid.cellBudget(store.capacity()));
+        cellSize = Math.max(diameter, extent / cells);
+        if (++sinceRebalance >= REBALANCE_INTERVAL && imbalance() > MAX_IMBALANCE) rebalance();
+
+        backend.parallelFor(slabs.length, 1, collectLeavers);
+        int moved = 0;
+        for (Slab slab : slabs) {
+            for (int i = 0; i < slab.leavers.size; i++) {
+                int particle = slab.leavers.items[i];
+                slabs[slabOf(store.x[particle])].owned.add(particle);
+            }
+            moved += slab.leavers.size;
+            slab.leavers.clear();
+        }
+        lastMigrated = moved;
+
+        backend.parallelFor(slabs.length, 1, collectGhosts);
+    }
+
+    /**
+     * Runs one substep of every slab in parallel, {@link #exchange()} must have run since the last step.
+     *
+     * @param subStepDt The time step of the substep
+     */
+    public void step(float subStepDt) {
+        stepDt = subStepDt;
+        backend.parallelFor(slabs.length, 1, stepSlabs);
+    }
+
+    /**
+     * Returns the ratio of the most crowded slab to the average slab.
+     *
+     * @return The imbalance, 1 for perfectly balanced slabs
+     */
+    private float imbalance() {
+        int total = 0, largest = 0;
+        for (Slab slab : slabs) {
+            total += slab.owned.size;
+            largest = Math.max(largest, slab.owned.size);
+        }
+        if (total < slabs.length * 2) return 1;
+        return largest * slabs.length / (float) total;
+    }
+
+    /**
+     * Moves the faces so every slab holds about the same number of particles, placing them on the quantiles
+     * of an x histogram gathered from all slabs. The particles are handed over by the following migration.
+     */
+    private void rebalance() {
+        backend.parallelFor(slabs.length, 1, countPositions);
+
+        Arrays.fill(histogram, 0);
+        for (int[] slabHistogram : histograms) {
+            for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+                histogram[bin] += slabHistogram[bin];
+            }
+        }
+        placeFaces(histogram, minX, extent, faces);
+        rebalances++;
+        sinceRebalance = 0;
+    }
+
+    /**
+     * Places the inner faces of a row of slabs on the quantiles of an x histogram over the world,
+     * so every slab receives about the same number of particles. The outer faces are left unchanged.
+     *
+     * @param histogram Particle counts of equally wide bins spanning the world along x
+     * @param minX The lower end of the world along x
+     * @param extent The edge length of the world
+     * @param faces The faces to move, one more than the number of slabs
+     */
+    public static void placeFaces(int[] histogram, float minX, float extent, float[] faces) {
+        int total = 0;
+        for (int count : histogram) total += count;
+
+        int slabCount = faces.length - 1;
+        float binWidth = extent / histogram.length;
+        int seen = 0, bin = 0;
+        for (int s = 1; s < slabCount; s++) {
+            long target = (long) total * s / slabCount;
+            while (bin < histogram.length && seen + histogram[bin] <= target) {
+                seen += histogram[bin++];
+            }
+            faces[s] = Math.max(faces[s - 1], minX + bin * binWidth);
+        }
+    }
+
+    /**
+     * Returns the slab containing the given x coordinate, positions beyond the walls belong to the outer slabs.
+     *
+     * @param x The coordinate along the slab axis
+     * @return The index of the slab
+     */
+    private int slabOf(float x) {
+        int low = 0, high = slabs.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (x >= faces[middle]) low = middle; else high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of slabs.
+     *
+     * @return The slab count
+     */
+    public int getSlabCount() {
+        return slabs.length;
+    }
+
+    /**
+     * Returns the number of particles owned by a slab.
+     *
+     * @param slab The index of the slab
+     * @return The owned particle count
+     */
+    public int getOwnedCount(int slab) {
+        return slabs[slab].owned.size;
+    }
+
+    /**
+     * Returns the number of ghost copies held by a slab.
+     *
+     * @param slab The index of the slab
+     * @return The ghost count
+     */
+    public int getGhostCount(int slab) {
+        return slabs[slab].ghostCount;
+    }
+
+    /**
+     * Returns the position of a face along x, face s is the lower face of slab s.
+     *
+     * @param face The index of the face, from 0 to the slab count
+     * @return The x coordinate of the face
+     */
+    public float getFace(int face) {
+        return faces[face];
+    }
+
+    /**
+     * Returns how many times the faces were moved.
+     *
+     * @return The rebalance count
+     */
+    public int getRebalances() {
+        return rebalances;
+    }
+
+    /**
+     * Returns the number of particles that changed slab during the last exchange.
+     *
+     * @return The migrated particle count
+     */
+    public int getLastMigrated() {
+        return lastMigrated;
+    }
+
+    /**
+     * The particles owned by one slab, the ghost copies of its neighbors and its private binning buffers.
+     */
+    private class Slab {
+        final int index;  // Position of the slab along x
+        final IntArray owned;  // Handles of the owned particles
+        final IntArray leavers;  // Owned particles that crossed a face during the last exchange
+
+        int ghostCount;  // Number of ghost copies
+        int[] ghostHandle = new int[0];  // Handle of the particle behind every ghost copy
+        float[] gx = new float[0], gy = new float[0], gz = new float[0];  // Positions of the ghosts
+        float[] gpx = new float[0], gpy = new float[0], gpz = new float[0];  // Previous positions of the ghosts
+        float[] gr = new float[0], gm = new float[0];  // Radii and masses of the ghosts
+
+        float[] lx = new float[0], ly = new float[0], lz = new float[0];  // Binned positions, owned particles first then ghosts
+        int[] cellStart = new int[0];  // Start of every cell in cellItems, with a trailing end entry
+        int[] cellItems = new int[0];  // Local indices sorted by cell
+        int[] cellOf = new int[0];  // Cell of every local index
+        final IntArray pairs;  // Contacts of the running substep as local index pairs
+
+        /**
+         * Constructs an empty slab.
+         *
+         * @param index The position of the slab along x
+         */
+        Slab(int index) {
+            this.index = index;
+            this.owned = new IntArray();
+            this.leavers = new IntArray();
+            this.pairs = new IntArray();
+        }
+
+        /**
+         * Swap-removes the owned particles lying outside the slab into the leaver list.
+         */
+        void collectLeavers() {
+            float low = index == 0 ? Float.NEGATIVE_INFINITY : faces[index];
+            float high = index == slabs.length - 1 ? Float.POSITIVE_INFINITY : faces[index + 1];
+            for (int i = owned.size - 1; i >= 0; i--) {
+                float x = store.x[owned.items[i]];
+                if (x < low || x >= high) {
+                    leavers.add(owned.items[i]);
+                    owned.items[i] = owned.items[--owned.size];
+                }
+            }
+        }
+
+        /**
+         * Copies the state of every particle of the other slabs lying within one cell of this slab's faces.
+         */
+        void collectGhosts() {
+            float low = faces[index] - cellSize;
+            float high = faces[index + 1] + cellSize;
+            ghostCount = 0;
+            for (int t = 0; t < slabs.length; t++) {
+                if (t == index || faces[t + 1] < low || faces[t] > high) continue;
+
+                IntArray other = slabs[t].owned;
+                for (int i = 0; i < other.size; i++) {
+                    int p = other.items[i];
+                    float x = store.x[p];
+                    if (x < low || x >= high) continue;
+
+                    if (ghostCount == ghostHandle.length) growGhosts();
+                    int g = ghostCount++;
+                    ghostHandle[g] = p;
+                    gx[g] = x;
+                    gy[g] = store.y[p];
+                    gz[g] = store.z[p];
+                    gpx[g] = store.prevX[p];
+                    gpy[g] = store.prevY[p];
+                    gpz[g] = store.prevZ[p];
+                    gr[g] = store.radius[p];
+                    gm[g] = store.mass[p];
+                }
+            }
+        }
+
+        /**
+         * Doubles the capacity of the ghost arrays.
+         */
+        private void growGhosts() {
+            int capacity = Math.max(64, ghostHandle.length * 2);
+            ghostHandle = Arrays.copyOf(ghostHandle, capacity);
+            gx = Arrays.copyOf(gx, capacity);
+            gy = Arrays.copyOf(gy, capacity);
+            gz = Arrays.copyOf(gz, capacity);
+            gpx = Arrays.copyOf(gpx, capacity);
+            gpy = Arrays.copyOf(gpy, capacity);
+            gpz = Arrays.copyOf(gpz, capacity);
+            gr = Arrays.copyOf(gr, capacity);
+            gm = Arrays.copyOf(gm, capacity);
+        }
+
+        /**
+         * Adds the x coordinates of the owned particles to a histogram over the world.
+         *
+         * @param counts The histogram, cleared first
+         */
+        void countPositions(int[] counts) {
+            Arrays.fill(counts, 0);
+            float scale = HISTOGRAM_BINS / extent;
+            for (int i = 0; i < owned.size; i++) {
+                int bin = (int) ((store.x[owned.items[i]] - minX) * scale);
+                counts[Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+            }
+        }
+
+        /**
+         * Runs the substep of the slab: bins owned particles and ghosts, collects the contacts touching
+         * an owned particle, resolves them and advances the owned particles.
+         *
+         * @param subStepDt The time step of the substep
+         */
+        void step(float subStepDt) {
+            int ownedCount = owned.size;
+            if (ownedCount == 0) return;
+
+            bin(ownedCount);
+            findPairs(ownedCount);
+
+            int[] handles = owned.items;
+            for (int k = 0; k < pairs.size; k += 2) {
+                int a = pairs.items[k], b = pairs.items[k + 1];
+                if (b < ownedCount) {
+                    CollisionSolverTask.resolve(store, handles[a], handles[b], subStepDt);
+                } else {
+                    int g = b - ownedCount;
+                    CollisionSolverTask.resolveAgainst(store, handles[a],
+                        gx[g], gy[g], gz[g], gpx[g], gpy[g], gpz[g], gr[g], gm[g], subStepDt);
+                }
+            }
+
+            integrator.advance(handles, ownedCount, subStepDt);
+        }
+
+        /**
+         * Sorts the owned particles and the ghosts into cells at least one diameter wide covering the slab and its ghost layers.
+         *
+         * @param ownedCount The number of owned particles
+         */
+        private void bin(int ownedCount) {
+            int n = ownedCount + ghostCount;
+            if (lx.length < n) {
+                int capacity = Math.max(n, lx.length * 2);
+                lx = new float[capacity];
+                ly = new float[capacity];
+                lz = new float[capacity];
+                cellItems = new int[capacity];
+                cellOf = new int[capacity];
+            }
+            for (int i = 0; i < ownedCount; i++) {
+                int p = owned.items[i];
+                lx[i] = store.x[p];
+                ly[i] = store.y[p];
+                lz[i] = store.z[p];
+            }
+            System.arraycopy(gx, 0, lx, ownedCount, ghostCount);
+            System.arraycopy(gy, 0, ly, ownedCount, ghostCount);
+            System.arraycopy(gz, 0, lz, ownedCount, ghostCount);
+
+            float originX = faces[index] - cellSize;
+            int cellsX = cellsX(), cellsYZ = cellsYZ();
+            int cellCount = cellsX * cellsYZ * cellsYZ;
+            if (cellStart.length < cellCount + 1) cellStart = new int[cellCount + 1];
+            Arrays.fill(cellStart, 0, cellCount + 1, 0);
+
+            for (int i = 0; i < n; i++) {
+                int cx = clamp((int) ((lx[i] - originX) / cellSize), cellsX);
+                int cy = clamp((int) ((ly[i] - minY) / cellSize), cellsYZ);
+                int cz = clamp((int) ((lz[i] - minZ) / cellSize), cellsYZ);
+                int cell = (cz * cellsYZ + cy) * cellsX + cx;
+                cellOf[i] = cell;
+                cellStart[cell + 1]++;
+            }
+            for (int c = 0; c < cellCount; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            for (int i = 0; i < n; i++) {
+                int cell = cellOf[i];
+                cellItems[cellStart[cell]++] = i;
+            }
+            for (int c = cellCount; c > 0; c--) {
+                cellStart[c] = cellStart[c - 1];
+            }
+            cellStart[0] = 0;
+        }
+
+        /**
+         * Collects every overlapping pair with at least one owned particle, owned indices come first in each pair.
+         * Every cell is tested against itself and the 26 cells around it, keeping each pair once.
+         *
+         * @param ownedCount The number of owned particles
+         */
+        private void findPairs(int ownedCount) {
+            pairs.clear();
+            int cellsX = cellsX(), cellsYZ = cellsYZ();
+            for (int i = 0; i < ownedCount; i++) {
+                int cell = cellOf[i];
+                int cx = cell % cellsX, cy = (cell / cellsX) % cellsYZ, cz = cell / (cellsX * cellsYZ);
+                float ri = store.radius[owned.items[i]];
+
+                for (int dz = -1; dz <= 1; dz++) {
+                    int nz = cz + dz;
+                    if (nz < 0 || nz >= cellsYZ) continue;
+                    for (int dy = -1; dy <= 1; dy++) {
+                        int ny = cy + dy;
+                        if (ny < 0 || ny >= cellsYZ) continue;
+                        for (int dx = -1; dx <= 1; dx++) {
+                            int nx = cx + dx;
+                            if (nx < 0 || nx >= cellsX) continue;
+
+                            int neighbor = (nz * cellsYZ + ny) * cellsX + nx;
+                            for (int k = cellStart[neighbor]; k < cellStart[neighbor + 1]; k++) {
+                                int j = cellItems[k];
+                                if (j <= i) continue;
+
+                                float rj = j < ownedCount ? store.radius[owned.items[j]] : gr[j - ownedCount];
+                                float ex = lx[i] - lx[j], ey = ly[i] - ly[j], ez = lz[i] - lz[j];
+                                float radiusSum = ri + rj;
+                                if (ex * ex + ey * ey + ez * ez <= radiusSum * radiusSum) {
+                                    pairs.add(i);
+                                    pairs.add(j);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the number of cells along x, covering the slab and both ghost layers.
+         *
+         * @return The cell count along x
+         */
+        private int cellsX() {
+            return Math.max(1, (int) Math.ceil((faces[index + 1] - faces[index]) / cellSize) + 2);
+        }
+
+        /**
+         * Returns the number of cells along y and z, covering the world.
+         *
+         * @return The cell count along y and z
+         */
+        private int cellsYZ() {
+            return Math.max(1, (int) Math.ceil(extent / cellSize));
+        }
+
+        /**
+         * Clamps a cell coordinate into the grid.
+         *
+         * @param c The cell coordinate
+         * @param cells The number of cells along the axis
+         * @return The clamped coordinate
+         */
+        private int clamp(int c, int cells) {
+            return c < 0 ? 0 : (c >= cells ? cells - 1 : c);
+        }
+    }
+}
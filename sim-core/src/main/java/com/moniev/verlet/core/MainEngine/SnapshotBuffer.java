@@ -0,0 +1,145 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+/**
+ * Triple buffer handing particle positions from the simulation thread to the render thread without locks.
+ * The writer fills the back snapshot and swaps it with the middle one, the reader swaps the middle one with its
+ * front snapshot whenever a newer one was published. Neither side ever waits, the reader simply keeps drawing
+ * its front snapshot until the writer publishes the next one.
+ * Every snapshot also carries the positions of the previously published step so the reader can interpolate.
+ */
+public class SnapshotBuffer {
+
+    private static final int INDEX_MASK = 3;  // Bits of the state holding the index of the middle snapshot
+    private static final int DIRTY = 4;  // Set in the state when the middle snapshot is newer than the front one
+
+    /**
+     * Particle positions of one published simulation step.
+     */
+    public static class Snapshot {
+        public float[] x, y, z;  // Positions at the published step
+        public float[] prevX, prevY, prevZ;  // Positions at the step published before, equal to the current ones for new particles
+        public int count;  // Number of particles in the snapshot
+        public long publishedNanos;  // Value of System.nanoTime() when the snapshot was published
+        public long intervalNanos;  // Time between the previous publication and this one
+
+        /**
+         * Constructs an empty snapshot with room for the given number of particles.
+         *
+         * @param capacity The number of particles the arrays can hold.
+         */
+        Snapshot(int capacity) {
+            allocate(capacity);
+        }
+
+        /**
+         * Replaces the arrays with arrays of the given capacity.
+         *
+         * @param capacity The number of particles the arrays can hold.
+         */
+        private void allocate(int capacity) {
+            x = new float[capacity];
+            y = new float[capacity];
+            z = new float[capacity];
+            prevX = new float[capacity];
+            prevY = new float[capacity];
+            prevZ = new float[capacity];
+        }
+
+        /**
+         * Returns how far the render time is between the previous and the published step.
+         *
+         * @param nowNanos The current value of System.nanoTime().
+         * @return The interpolation factor, between 0 and 1.
+         */
+        public float alpha(long nowNanos) {
+            if (intervalNanos <= 0) return 1f;
+            float alpha = (float) (nowNanos - publishedNanos) / intervalNanos;
+            return alpha < 0 ? 0 : (alpha > 1 ? 1 : alpha);
+        }
+    }
+
+    private final Snapshot[] snapshots;  // The three snapshots rotated between writer and reader
+    private final AtomicInteger state;  // Index of the middle snapshot and the dirty flag
+    private int back;  // Index of the snapshot owned by the writer
+    private int front;  // Index of the snapshot owned by the reader
+
+    private float[] lastX, lastY, lastZ;  // Positions of the last published step, kept by the writer
+    private int lastCount;  // Number of particles of the last published step
+    private long lastPublished;  // Publication time of the last published step
+
+    /**
+     * Constructs a buffer with room for the given number of particles, growing on demand.
+     *
+     * @param capacity The initial number of particles a snapshot can hold.
+     */
+    public SnapshotBuffer(int capacity) {
+        this.snapshots = new Snapshot[] { new Snapshot(capacity), new Snapshot(capacity), new Snapshot(capacity) };
+        this.back = 0;
+        this.state = new AtomicInteger(1);
+        this.front = 2;
+        this.lastX = new float[capacity];
+        this.lastY = new float[capacity];
+        this.lastZ = new float[capacity];
+    }
+
+    /**
+     * Copies the current positions of the store into the back snapshot and publishes it.
+     * Must only be called by the writer thread.
+     *
+     * @param store The store holding the particles.
+     */
+    public void publish(ParticleStore store) {
+        Snapshot snapshot = snapshots[back];
+        int count = store.size();
+        if (snapshot.x.length < count) snapshot.allocate(Math.max(count, snapshot.x.length * 2));
+        if (lastX.length < count) {
+            int capacity = Math.max(count, lastX.length * 2);
+            lastX = Arrays.copyOf(lastX, capacity);
+            lastY = Arrays.copyOf(lastY, capacity);
+            lastZ = Arrays.copyOf(lastZ, capacity);
+        }
+
+        System.arraycopy(store.x, 0, snapshot.x, 0, count);
+        System.arraycopy(store.y, 0, snapshot.y, 0, count);
+        System.arraycopy(store.z, 0, snapshot.z, 0, count);
+
+        int previous = Math.min(lastCount, count);
+        System.arraycopy(lastX, 0, snapshot.prevX, 0, previous);
+        System.arraycopy(lastY, 0, snapshot.prevY, 0, previous);
+        System.arraycopy(lastZ, 0, snapshot.prevZ, 0, previous);
+        System.arraycopy(store.x, previous, snapshot.prevX, previous, count - previous);
+        System.arraycopy(store.y, previous, snapshot.prevY, previous, count - previous);
+        System.arraycopy(store.z, previous, snapshot.prevZ, previous, count - previous);
+
+        System.arraycopy(store.x, 0, lastX, 0, count);
+        System.arraycopy(store.y, 0, lastY, 0, count);
+        System.arraycopy(store.z, 0, lastZ, 0, count);
+        lastCount = count;
+
+        long now = System.nanoTime();
+        snapshot.count = count;
+        snapshot.intervalNanos = lastPublished == 0 ? 0 : now - lastPublished;
+        snapshot.publishedNanos = now;
+        lastPublished = now;
+
+        back = state.getAndSet(back | DIRTY) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published snapshot, swapping it in if it is newer than the one held by the reader.
+     * Must only be called by the reader thread, the returned snapshot stays valid until the next call.
+     *
+     * @return The newest snapshot, empty until the first publication.
+     */
+    public Snapshot acquire() {
+        if ((state.get() & DIRTY) != 0) {
+            front = state.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,10 @@
+package com.moniev.verlet.core.MainEngine;
+
+/**
+ * The ways the {@link Engine} can resolve the contacts found by the broad phase.
+ */
+public enum SolverMode {
+    QUEUE,    // Workers poll contacts from a shared queue and may update the same particle concurrently, see {@link CollisionSolverTask}
+    COLORED,  // Contacts are split into independent colors solved one after another, see {@link ColoredContactSolver}
+    JACOBI    // Corrections are accumulated per particle and applied averaged, needs several iterations to hold a pile, see {@link JacobiContactSolver}
+}
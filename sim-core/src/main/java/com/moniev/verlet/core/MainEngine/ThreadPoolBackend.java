@@ -0,0 +1,173 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link ExecutionBackend} running loops on a fixed set of long lived threads, platform or virtual.
+ * The chunks of a loop are claimed through a shared counter by the calling thread and by up to
+ * parallelism - 1 helpers, so a loop completes on the calling thread alone when every worker is busy,
+ * which keeps nested loops free of deadlocks.
+ */
+public class ThreadPoolBackend implements ExecutionBackend {
+
+    private final ThreadPoolExecutor workers;  // Threads helping the calling thread
+    private final int parallelism;  // Number of threads working on one loop, including the caller
+
+    /**
+     * Constructs a backend over the given number of threads created by the factory.
+     *
+     * @param threads The number of threads working on one loop, including the calling thread.
+     * @param factory The factory creating the helper threads.
+     */
+    public ThreadPoolBackend(int threads, ThreadFactory factory) {
+        this.parallelism = Math.max(1, threads);
+        int helpers = Math.max(1, parallelism - 1);
+        this.workers = new ThreadPoolExecutor(helpers, helpers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), factory);
+    }
+
+    /**
+     * Returns a backend over daemon platform threads.
+     *
+     * @param threads The number of threads working on one loop.
+     * @return The backend.
+     */
+    public static ThreadPoolBackend platform(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        return new ThreadPoolBackend(threads, runnable -> {
+            Thread thread = new Thread(runnable, "verlet-worker-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns a backend over virtual threads. The threads are created through reflection so the engine
+     * still compiles and runs on older Java versions as long as this backend is not selected.
+     *
+     * @param threads The number of threads working on one loop.
+     * @return The backend.
+     * @throws UnsupportedOperationException if the running Java version has no virtual threads.
+     */
+    public static ThreadPoolBackend virtual(int threads) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "verlet-virtual-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return new ThreadPoolBackend(threads, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer", e);
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public void parallelFor(int count, int grain, RangeAction action) {
+        if (count <= 0) return;
+
+        grain = Math.max(1, grain);
+        int chunks = (count + grain - 1) / grain;
+        if (chunks == 1) {
+            action.run(0, count);
+            return;
+        }
+
+        RangeJob job = new RangeJob(count, grain, chunks, action);
+        int helpers = Math.min(parallelism, chunks) - 1;
+        for (int i = 0; i < helpers; i++) {
+            workers.execute(job);
+        }
+        job.runAndAwait();
+    }
+
+    /**
+     * Counts the helpers running a job, the calling thread of a loop is not included.
+     */
+    @Override
+    public int getActiveThreadCount() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * Counts the helper requests not yet picked up by a helper.
+     */
+    @Override
+    public long getQueuedTaskCount() {
+        return workers.getQueue().size();
+    }
+
+    @Override
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The chunks of one loop, claimed one by one by every thread running the job.
+     */
+    private static class RangeJob implements Runnable {
+        private final int count, grain, chunks;  // Size of the range, of a chunk and number of chunks
+        private final RangeAction action;  // The work applied to every chunk
+        private final AtomicInteger next;  // Next unclaimed chunk
+        private final AtomicInteger finished;  // Number of completed chunks
+        private final Thread caller;  // Thread waiting for the job
+        private volatile Throwable failure;  // First exception thrown by a chunk
+
+        RangeJob(int count, int grain, int chunks, RangeAction action) {
+            this.count = count;
+            this.grain = grain;
+            this.chunks = chunks;
+            this.action = action;
+            this.next = new AtomicInteger();
+            this.finished = new AtomicInteger();
+            this.caller = Thread.currentThread();
+        }
+
+        /**
+         * Claims and runs chunks until none is left.
+         */
+        @Override
+        public void run() {
+            int chunk;
+            while ((chunk = next.getAndIncrement()) < chunks) {
+                int from = chunk * grain;
+                try {
+                    action.run(from, Math.min(count, from + grain));
+                } catch (Throwable t) {
+                    if (failure == null) failure = t;
+                } finally {
+                    if (finished.incrementAndGet() == chunks) LockSupport.unpark(caller);
+                }
+            }
+        }
+
+        /**
+         * Runs chunks on the calling thread, waits for the chunks claimed by helpers
+         * and rethrows the first exception thrown by any chunk.
+         */
+        void runAndAwait() {
+            run();
+            while (finished.get() < chunks) {
+                LockSupport.park(this);
+            }
+
+            Throwable t = failure;
+            if (t instanceof RuntimeException) throw (RuntimeException) t;
+            if (t instanceof Error) throw (Error) t;
+            if (t != null) throw new IllegalStateException(t);
+        }
+    }
+}
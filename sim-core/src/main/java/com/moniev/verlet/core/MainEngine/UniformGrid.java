@@ -0,0 +1,356 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.KernelScratch;
+import com.moniev.verlet.core.Kernel.Kernels;
+import com.moniev.verlet.core.Particle.ParticleStore;
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * A {@link BroadPhase} that bins particles into a uniform grid with cells at least as large as a particle diameter.
+ * Every substep the particles are re-binned from scratch with a parallel counting sort: cell indices and
+ * occupancy counts are computed in parallel, a blocked parallel prefix sum turns counts into cell offsets,
+ * and a parallel scatter writes particle handles and coordinates in cell order. Pairs are then enumerated
+ * within each cell and against the 13 forward cells of its 27-cell stencil, reading contiguous coordinate runs.
+ * The number of cells is capped by the particle capacity, larger worlds get larger cells, so the memory of the grid
+ * follows the number of particles rather than the volume of the world.
+ */
+public class UniformGrid implements BroadPhase {
+
+    private static final int PARTICLE_GRAIN = 4096;  // Particles handled by one task of the binning passes
+    private static final int CELL_GRAIN = 512;  // Cells handled by one task of the clearing and pair passes
+    private static final int CELLS_PER_PARTICLE = 8;  // Cells allowed per particle slot before the cells grow
+    private static final int MIN_CELLS = 1 << 15;  // Cells always allowed, keeps small scenes on the finest grid
+    private static final int MAX_CELLS = 1 << 22;  // Cells never exceeded, about 32 MB of offsets and counters
+
+    public final ParticleStore store;  // The store holding the state of every tracked particle
+    public final float cellSize;  // Edge length of one cell, at least the requested cell size
+    public final float minX, minY, minZ;  // Minimum coordinates (X, Y, Z) covered by the grid
+    public final int cellsX, cellsY, cellsZ;  // Number of cells along each axis
+    public final int cellCount;  // Total number of cells
+
+    private final CollisionKernel kernel;  // Narrow-phase kernel used on the contiguous cell runs
+    private final ExecutionBackend backend;  // Backend running the binning and pair passes
+
+    private final IntArray particles;  // Handles of the tracked particles
+    private int binned;  // Number of particles covered by the last binning
+    private int[] cellOf;  // Cell index of each tracked particle, by position in {@link #particles}
+    private int[] sorted;  // Particle handles in cell order
+    private float[] sx, sy, sz, sr;  // Coordinates and radii in cell order
+    private final int[] cellStart;  // Offset of the first particle of each cell in {@link #sorted}, with a trailing total
+    private final AtomicIntegerArray cellCursor;  // Cell occupancy during counting, scatter cursor afterwards
+    private final int[] blockSums;  // Per-block totals of the parallel prefix sum
+    private final int blockSize;  // Number of cells summed by one block
+
+    private final RangeAction clearCounts, countCells, sumBlocks, applyOffsets, scatter;  // Passes of the counting sort
+    private PairSink pairSink;  // Sink of the running pair enumeration
+    private float pairMargin;  // Surface gap accepted by the running pair enumeration
+    private final RangeAction enumeratePairs;  // Pass enumerating pairs over the half stencil
+
+    /**
+     * Constructs a grid covering a cubic world.
+     *
+     * @param store The store holding the particles
+     * @param center The center of the world
+     * @param size The half extent of the world
+     * @param cellSize The edge length of one cell, at least the largest particle diameter
+     */
+    public UniformGrid(ParticleStore store, Vector center, float size, float cellSize) {
+        this(store, center, size, cellSize, ForkJoinBackend.shared());
+    }
+
+    /**
+     * Constructs a grid covering a cubic world, running its passes on the given backend.
+     *
+     * @param store The store holding the particles
+     * @param center The center of the world
+     * @param size The half extent of the world
+     * @param cellSize The edge length of one cell, at least the largest particle diameter, grown when the world is too large
+     * @param backend The backend running the passes, shut down by its owner
+     */
+    public UniformGrid(ParticleStore store, Vector center, float size, float cellSize, ExecutionBackend backend) {
+        this.store = store;
+        this.minX = center.x - size;
+        this.minY = center.y - size;
+        this.minZ = center.z - size;
+        this.cellsX = cellsPerAxis(2 * size, cellSize, cellBudget(store.capacity()));
+        this.cellSize = Math.max(cellSize, 2 * size / cellsX);
+        this.cellsY = cellsX;
+        this.cellsZ = cellsX;
+        this.cellCount = cellsX * cellsY * cellsZ;
+
+        this.kernel = Kernels.get();
+        this.backend = backend;
+
+        this.particles = new IntArray(store.capacity());
+        this.cellOf = new int[store.capacity()];
+        this.sorted = new int[store.capacity()];
+        this.sx = new float[store.capacity()];
+        this.sy = new float[store.capacity()];
+        this.sz = new float[store.capacity()];
+        this.sr = new float[store.capacity()];
+        this.cellStart = new int[cellCount + 1];
+        this.cellCursor = new AtomicIntegerArray(cellCount);
+
+        int blocks = Math.max(1, backend.getParallelism() * 4);
+        this.blockSize = (cellCount + blocks - 1) / blocks;
+        this.blockSums = new int[(cellCount + blockSize - 1) / blockSize];
+
+        this.clearCounts = (from, to) -> {
+            for (int c = from; c < to; c++) cellCursor.set(c, 0);
+        };
+        this.countCells = (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int particle = particles.items[k];
+                int cell = cellIndex(store.x[particle], store.y[particle], store.z[particle]);
+                cellOf[k] = cell;
+                cellCursor.incrementAndGet(cell);
+            }
+        };
+        this.sumBlocks = (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int sum = 0;
+                int end = Math.min(cellCount, (b + 1) * blockSize);
+                for (int c = b * blockSize; c < end; c++) sum += cellCursor.get(c);
+                blockSums[b] = sum;
+            }
+        };
+        this.applyOffsets = (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int running = blockSums[b];
+                int end = Math.min(cellCount, (b + 1) * blockSize);
+                for (int c = b * blockSize; c < end; c++) {
+                    int count = cellCursor.get(c);
+                    cellStart[c] = running;
+                    cellCursor.set(c, running);
+                    running += count;
+                }
+            }
+        };
+        this.scatter = (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int particle = particles.items[k];
+                int slot = cellCursor.getAndIncrement(cellOf[k]);
+                sorted[slot] = particle;
+                sx[slot] = store.x[particle];
+                sy[slot] = store.y[particle];
+                sz[slot] = store.z[particle];
+                sr[slot] = store.radius[particle];
+            }
+        };
+        this.enumeratePairs = this::enumeratePairs;
+    }
+
+    /**
+     * Returns the number of cells a grid may hold for the given particle capacity.
+     *
+     * @param capacity The number of particle slots of the store.
+     * @return The cell budget, between {@link #MIN_CELLS} and {@link #MAX_CELLS}.
+     */
+    static int cellBudget(int capacity) {
+        return (int) Math.min(MAX_CELLS, Math.max(MIN_CELLS, (long) CELLS_PER_PARTICLE * capacity));
+    }
+
+    /**
+     * Returns the number of cells along one axis of a cubic grid, as many as the cell size allows within the budget.
+     * The count is computed in floating point, so worlds much larger than the cells cannot overflow it.
+     *
+     * @param extent The length of the grid along the axis.
+     * @param cellSize The smallest edge length of one cell.
+     * @param budget The largest total number of cells.
+     * @return The number of cells along the axis, at least 1.
+     */
+    static int cellsPerAxis(float extent, float cellSize, int budget) {
+        double wanted = Math.max(1, Math.ceil(extent / cellSize));
+        int allowed = Math.max(1, (int) Math.floor(Math.cbrt(budget)));
+        return (int) Math.min(wanted, allowed);
+    }
+
+    /**
+     * Returns the cell containing the given point, points outside the grid are clamped to the border cells.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @param z The z-coordinate of the point.
+     * @return The index of the cell.
+     */
+    public int cellIndex(float x, float y, float z) {
+        int cx = clamp((int) Math.floor((x - minX) / cellSize), cellsX);
+        int cy = clamp((int) Math.floor((y - minY) / cellSize), cellsY);
+        int cz = clamp((int) Math.floor((z - minZ) / cellSize), cellsZ);
+        return (cz * cellsY + cy) * cellsX + cx;
+    }
+
+    /**
+     * Clamps a cell coordinate into the grid.
+     *
+     * @param c The cell coordinate.
+     * @param cells The number of cells along the axis.
+     * @return The clamped coordinate.
+     */
+    private static int clamp(int c, int cells) {
+        return c < 0 ? 0 : (c >= cells ? cells - 1 : c);
+    }
+
+    @Override
+    public void insert(int particle) {
+        particles.add(particle);
+    }
+
+    /**
+     * Stops tracking every particle, for owners whose handles change between re-bins.
+     */
+    public void clear() {
+        particles.clear();
+        binned = 0;
+    }
+
+    /**
+     * Re-bins every tracked particle with a parallel counting sort.
+     * Particles inserted since the last call only become visible to {@link #findPairs} and {@link #query} afterwards.
+     */
+    @Override
+    public void rebin() {
+        int n = particles.size;
+        ensureCapacity(n);
+
+        backend.parallelFor(cellCount, CELL_GRAIN * 8, clearCounts);
+        backend.parallelFor(n, PARTICLE_GRAIN, countCells);
+
+        backend.parallelFor(blockSums.length, 1, sumBlocks);
+        int running = 0;
+        for (int b = 0; b < blockSums.length; b++) {
+            int sum = blockSums[b];
+            blockSums[b] = running;
+            running += sum;
+        }
+        backend.parallelFor(blockSums.length, 1, applyOffsets);
+        cellStart[cellCount] = running;
+
+        backend.parallelFor(n, PARTICLE_GRAIN, scatter);
+        binned = n;
+    }
+
+    /**
+     * Grows the per-particle arrays to hold the given number of particles.
+     *
+     * @param n The number of tracked particles.
+     */
+    private void ensureCapacity(int n) {
+        if (sorted.length >= n) return;
+
+        int capacity = Math.max(n, sorted.length * 2);
+        cellOf = new int[capacity];
+        sorted = new int[capacity];
+        sx = new float[capacity];
+        sy = new float[capacity];
+        sz = new float[capacity];
+        sr = new float[capacity];
+    }
+
+    @Override
+    public void findPairs(PairSink sink, float margin) {
+        if (binned == 0) return;
+
+        pairSink = sink;
+        pairMargin = margin;
+        backend.parallelFor(cellCount, CELL_GRAIN, enumeratePairs);
+        pairSink = null;
+    }
+
+    /**
+     * Tests the particles of the given cells against each other and against the 13 forward cells of the stencil around them,
+     * the other 13 neighbors test this cell in turn, so each unordered pair goes through the kernel and is reported once.
+     *
+     * @param from The first cell, inclusive.
+     * @param to The last cell, exclusive.
+     */
+    private void enumeratePairs(int from, int to) {
+        PairSink sink = pairSink.local();
+        float margin = pairMargin;
+        KernelScratch scratch = KernelScratch.get();
+
+        for (int cell = from; cell < to; cell++) {
+            int start = cellStart[cell], end = cellStart[cell + 1];
+            if (start == end) continue;
+
+            scratch.ensureCapacity(end - start);
+            for (int i = start; i < end - 1; i++) {
+                int hits = kernel.overlaps(sx[i], sy[i], sz[i], sr[i] + margin, sx, sy, sz, sr, i + 1, end, scratch.hits);
+                for (int h = 0; h < hits; h++) {
+                    sink.addPair(sorted[i], sorted[scratch.hits[h]]);
+                }
+            }
+
+            int cx = cell % cellsX;
+            int cy = (cell / cellsX) % cellsY;
+            int cz = cell / (cellsX * cellsY);
+            for (int dz = 0; dz <= 1; dz++) {
+                for (int dy = dz == 0 ? 0 : -1; dy <= 1; dy++) {
+                    for (int dx = (dz == 0 && dy == 0) ? 1 : -1; dx <= 1; dx++) {
+                        int nx = cx + dx, ny = cy + dy, nz = cz + dz;
+                        if (nx < 0 || ny < 0 || nx >= cellsX || ny >= cellsY || nz >= cellsZ) continue;
+
+                        int neighbor = (nz * cellsY + ny) * cellsX + nx;
+                        int nStart = cellStart[neighbor], nEnd = cellStart[neighbor + 1];
+                        if (nStart == nEnd) continue;
+
+                        scratch.ensureCapacity(nEnd - nStart);
+                        for (int i = start; i < end; i++) {
+                            int hits = kernel.overlaps(sx[i], sy[i], sz[i], sr[i] + margin, sx, sy, sz, sr, nStart, nEnd, scratch.hits);
+                            for (int h = 0; h < hits; h++) {
+                                sink.addPair(sorted[i], sorted[scratch.hits[h]]);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the particles within the sphere from the last binning.
+     */
+    @Override
+    public void query(float x, float y, float z, float radius, IntArray out) {
+        if (binned == 0) return;
+
+        int low = cellIndex(x - radius, y - radius, z - radius);
+        int high = cellIndex(x + radius, y + radius, z + radius);
+        int lx = low % cellsX, ly = (low / cellsX) % cellsY, lz = low / (cellsX * cellsY);
+        int hx = high % cellsX, hy = (high / cellsX) % cellsY, hz = high / (cellsX * cellsY);
+        float radiusSquared = radius * radius;
+
+        for (int cz = lz; cz <= hz; cz++) {
+            for (int cy = ly; cy <= hy; cy++) {
+                for (int cx = lx; cx <= hx; cx++) {
+                    int cell = (cz * cellsY + cy) * cellsX + cx;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        float dx = sx[i] - x, dy = sy[i] - y, dz = sz[i] - z;
+                        if (dx * dx + dy * dy + dz * dz <= radiusSquared) out.add(sorted[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports every particle covered by the last binning, the structure is rebuilt from scratch.
+     */
+    @Override
+    public int getLastRebinned() {
+        return binned;
+    }
+
+    @Override
+    public int count() {
+        return particles.size;
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,83 @@
+package com.moniev.verlet.core.MainEngine;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread buffers of a parallel pass, created on first use by each worker and remembered with their owner.
+ * Pools retire idle workers and start new ones later, so after every drain the buffers of terminated threads are
+ * dropped, otherwise the list would grow with every replacement worker and keep the capacity of dead buffers.
+ *
+ * @param <T> The type of the buffers.
+ */
+class WorkerBuffers<T> {
+
+    private final ArrayList<T> buffers;  // Every live buffer, in creation order
+    private final ArrayList<Thread> owners;  // Thread owning each buffer, by position in buffers
+    private final ThreadLocal<T> local;  // Buffer of the calling thread
+
+    /**
+     * Constructs an empty set of buffers.
+     *
+     * @param factory Creates the buffer of a thread on its first use.
+     */
+    WorkerBuffers(Supplier<T> factory) {
+        this.buffers = new ArrayList<>();
+        this.owners = new ArrayList<>();
+        this.local = ThreadLocal.withInitial(() -> {
+            T buffer = factory.get();
+            synchronized (buffers) {
+                buffers.add(buffer);
+                owners.add(Thread.currentThread());
+            }
+            return buffer;
+        });
+    }
+
+    /**
+     * Returns the buffer of the calling thread, creating it on first use.
+     *
+     * @return The buffer.
+     */
+    T local() {
+        return local.get();
+    }
+
+    /**
+     * Returns the number of live buffers.
+     *
+     * @return The buffer count.
+     */
+    int size() {
+        synchronized (buffers) {
+            return buffers.size();
+        }
+    }
+
+    /**
+     * Returns a buffer by creation order.
+     *
+     * @param index The position of the buffer, below {@link #size()}.
+     * @return The buffer.
+     */
+    T get(int index) {
+        synchronized (buffers) {
+            return buffers.get(index);
+        }
+    }
+
+    /**
+     * Drops the buffers of the threads that terminated. Their content is lost, so callers drain every buffer first.
+     * Must not run concurrently with a pass writing to the buffers.
+     */
+    void retireTerminated() {
+        synchronized (buffers) {
+            for (int i = buffers.size() - 1; i >= 0; i--) {
+                if (!owners.get(i).isAlive()) {
+                    buffers.remove(i);
+                    owners.remove(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.moniev.verlet.core.Particle;
+
+import com.moniev.verlet.core.Vector.Vector;
+
+/**
+ * A lightweight view of a single particle stored in a {@link ParticleStore}.
+ * All state lives in the store columns, this class only keeps the handle of the particle
+ * and offers the vector based API for code that is not performance critical.
+ */
+public class Particle {
+
+    public final ParticleStore store;  // The store holding the state of the particle.
+    public final int index;  // The handle of the particle inside the store.
+
+    /**
+     * Constructs a view of the particle with the given handle.
+     *
+     * @param store The store holding the particle.
+     * @param index The handle of the particle.
+     */
+    public Particle(ParticleStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Returns a copy of the particle's current position.
+     *
+     * @return The position of the particle.
+     */
+    public Vector getPosition() {
+        return getPosition(new Vector(0, 0, 0));
+    }
+
+    /**
+     * Writes the particle's current position into the given vector.
+     *
+     * @param out The vector receiving the position.
+     * @return The given vector for chaining.
+     */
+    public Vector getPosition(Vector out) {
+        return out.set(store.x[index], store.y[index], store.z[index]);
+    }
+
+    /**
+     * Returns a copy of the particle's position from the previous step.
+     *
+     * @return The last position of the particle.
+     */
+    public Vector getLastPosition() {
+        return new Vector(store.prevX[index], store.prevY[index], store.prevZ[index]);
+    }
+
+    /**
+     * Returns a copy of the particle's accumulated acceleration.
+     *
+     * @return The acceleration of the particle.
+     */
+    public Vector getAcceleration() {
+        return new Vector(store.ax[index], store.ay[index], store.az[index]);
+    }
+
+    /**
+     * Moves the particle to the given position without changing its velocity.
+     *
+     * @param position The new position of the particle.
+     */
+    public void setPosition(Vector position) {
+        store.prevX[index] += position.x - store.x[index];
+        store.prevY[index] += position.y - store.y[index];
+        store.prevZ[index] += position.z - store.z[index];
+        store.x[index] = position.x;
+        store.y[index] = position.y;
+        store.z[index] = position.z;
+    }
+
+    /**
+     * Returns the radius of the particle.
+     *
+     * @return The radius of the particle.
+     */
+    public float getRadius() {
+        return store.radius[index];
+    }
+
+    /**
+     * Returns the mass of the particle.
+     *
+     * @return The mass of the particle.
+     */
+    public float getMass() {
+        return store.mass[index];
+    }
+
+    /**
+     * Accelerates the particle toward a target position.
+     *
+     * @param target The target position to accelerate the particle towards.
+     */
+    public void accelerateToward(Vector target) {
+        float dx = target.x - store.x[index];
+        float dy = target.y - store.y[index];
+        float dz = target.z - store.z[index];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        store.accelerate(index, dx / distance, dy / distance, dz / distance);
+    }
+
+    /**
+     * Adds an acceleration vector to the particle's current acceleration.
+     *
+     * @param a The acceleration vector to be added.
+     */
+    public void accelerate(Vector a) {
+        store.accelerate(index, a.x, a.y, a.z);
+    }
+
+    /**
+     * Sets the particle's velocity based on a given velocity vector and time delta.
+     *
+     * @param v The velocity vector.
+     * @param dt The time delta.
+     */
+    public void setVelocity(Vector v, float dt) {
+        store.setVelocity(index, v.x, v.y, v.z, dt);
+    }
+
+    /**
+     * Adds velocity to the particle's last position based on a given velocity vector and time delta.
+     *
+     * @param v The velocity vector.
+     * @param dt The time delta.
+     */
+    public void addVelocity(Vector v, float dt) {
+        store.addVelocity(index, v.x, v.y, v.z, dt);
+    }
+
+    /**
+     * Calculates and returns the particle's velocity based on the current and last positions.
+     *
+     * @param dt The time delta.
+     * @return The velocity of the particle.
+     */
+    public Vector getVelocity(float dt) {
+        return getVelocity(dt, new Vector(0, 0, 0));
+    }
+
+    /**
+     * Writes the particle's velocity into the given vector instead of allocating a new one.
+     *
+     * @param dt The time delta.
+     * @param out The vector receiving the velocity.
+     * @return The given vector for chaining.
+     */
+    public Vector getVelocity(float dt, Vector out) {
+        return out
+            .set(store.x[index], store.y[index], store.z[index])
+            .subLocal(store.prevX[index], store.prevY[index], store.prevZ[index])
+            .scaleLocal(1f / dt);
+    }
+
+    /**
+     * Prints out the current position and mass of the particle.
+     */
+    public void printParticle() {
+        String sPosition = getPosition().toString();
+        System.out.printf("[position: %s][mass %f]\n", sPosition, getMass());
+    }
+
+    /**
+     * Updates the particle's position based on its velocity and acceleration.
+     * This method is typically called on each simulation step.
+     *
+     * @param dt The time step for the simulation.
+     */
+    public void update(float dt) {
+        store.update(index, dt);
+    }
+}
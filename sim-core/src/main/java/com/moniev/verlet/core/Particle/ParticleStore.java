@@ -0,0 +1,225 @@
+package com.moniev.verlet.core.Particle;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for all particles of a simulation.
+ * Every particle is addressed by an int handle that indexes into primitive columns,
+ * so the hot loops walk contiguous float arrays instead of chasing object references.
+ */
+public class ParticleStore {
+
+    public float[] x, y, z;              // Current position columns of the particles.
+    public float[] prevX, prevY, prevZ;  // Position columns from the previous step, the velocity is implied by the difference.
+    public float[] ax, ay, az;           // Accumulated acceleration columns, cleared after each integration step.
+    public float[] radius;               // Radius column, used for collision detection and rendering.
+    public float[] mass;                 // Mass column, used to weight collision corrections.
+
+    private int count;  // Number of particles currently stored, handles are always in range [0, count).
+    private float maxRadius;  // Largest radius of any stored particle, bounds the reach of a contact.
+
+    /**
+     * Constructs an empty store with room for the given number of particles.
+     * The store grows on demand, the capacity only avoids reallocation.
+     *
+     * @param capacity The initial number of particles the columns can hold.
+     */
+    public ParticleStore(int capacity) {
+        int initial = Math.max(capacity, 16);
+        this.x = new float[initial];
+        this.y = new float[initial];
+        this.z = new float[initial];
+        this.prevX = new float[initial];
+        this.prevY = new float[initial];
+        this.prevZ = new float[initial];
+        this.ax = new float[initial];
+        this.ay = new float[initial];
+        this.az = new float[initial];
+        this.radius = new float[initial];
+        this.mass = new float[initial];
+    }
+
+    /**
+     * Adds a resting particle to the store.
+     *
+     * @param px The x-coordinate of the particle.
+     * @param py The y-coordinate of the particle.
+     * @param pz The z-coordinate of the particle.
+     * @param r The radius of the particle.
+     * @param m The mass of the particle.
+     * @return The handle of the new particle.
+     */
+    public int add(float px, float py, float pz, float r, float m) {
+        if (count == x.length) grow(count * 2);
+
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        z[i] = pz;
+        prevX[i] = px;
+        prevY[i] = py;
+        prevZ[i] = pz;
+        ax[i] = 0;
+        ay[i] = 0;
+        az[i] = 0;
+        radius[i] = r;
+        mass[i] = m;
+        maxRadius = Math.max(maxRadius, r);
+        return i;
+    }
+
+    /**
+     * Removes a particle by moving the last particle of the store into its slot.
+     * The handle of the last particle changes to the removed one, so only owners that track no handles may call it.
+     *
+     * @param i The handle of the particle to remove.
+     */
+    public void swapRemove(int i) {
+        int last = --count;
+        if (i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        z[i] = z[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        prevZ[i] = prevZ[last];
+        ax[i] = ax[last];
+        ay[i] = ay[last];
+        az[i] = az[last];
+        radius[i] = radius[last];
+        mass[i] = mass[last];
+    }
+
+    /**
+     * Drops every particle from the given handle on.
+     *
+     * @param size The number of particles to keep.
+     */
+    public void truncate(int size) {
+        count = Math.min(count, Math.max(0, size));
+    }
+
+    /**
+     * Returns the number of particles in the store.
+     *
+     * @return The particle count.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the largest radius of any particle in the store.
+     *
+     * @return The maximal particle radius.
+     */
+    public float maxRadius() {
+        return maxRadius;
+    }
+
+    /**
+     * Returns the number of particles the columns can hold before growing.
+     *
+     * @return The current capacity.
+     */
+    public int capacity() {
+        return x.length;
+    }
+
+    /**
+     * Grows every column to at least the given capacity.
+     *
+     * @param capacity The new minimal capacity.
+     */
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        prevZ = Arrays.copyOf(prevZ, capacity);
+        ax = Arrays.copyOf(ax, capacity);
+        ay = Arrays.copyOf(ay, capacity);
+        az = Arrays.copyOf(az, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+    }
+
+    /**
+     * Adds an acceleration to the particle's accumulated acceleration.
+     *
+     * @param i The handle of the particle.
+     * @param accX The x-component of the acceleration.
+     * @param accY The y-component of the acceleration.
+     * @param accZ The z-component of the acceleration.
+     */
+    public void accelerate(int i, float accX, float accY, float accZ) {
+        ax[i] += accX;
+        ay[i] += accY;
+        az[i] += accZ;
+    }
+
+    /**
+     * Sets the particle's velocity by moving its last position behind the current one.
+     *
+     * @param i The handle of the particle.
+     * @param vx The x-component of the velocity.
+     * @param vy The y-component of the velocity.
+     * @param vz The z-component of the velocity.
+     * @param dt The time delta.
+     */
+    public void setVelocity(int i, float vx, float vy, float vz, float dt) {
+        prevX[i] = x[i] - vx * dt;
+        prevY[i] = y[i] - vy * dt;
+        prevZ[i] = z[i] - vz * dt;
+    }
+
+    /**
+     * Adds a velocity to the particle by shifting its last position.
+     *
+     * @param i The handle of the particle.
+     * @param vx The x-component of the velocity.
+     * @param vy The y-component of the velocity.
+     * @param vz The z-component of the velocity.
+     * @param dt The time delta.
+     */
+    public void addVelocity(int i, float vx, float vy, float vz, float dt) {
+        prevX[i] -= vx * dt;
+        prevY[i] -= vy * dt;
+        prevZ[i] -= vz * dt;
+    }
+
+    /**
+     * Advances the particle by one Verlet step and clears its acceleration.
+     *
+     * @param i The handle of the particle.
+     * @param dt The time step for the simulation.
+     */
+    public void update(int i, float dt) {
+        float scale = dt * dt * 0.27f;
+
+        float px = x[i], py = y[i], pz = z[i];
+        x[i] = px + (px - prevX[i]) + ax[i] * scale;
+        y[i] = py + (py - prevY[i]) + ay[i] * scale;
+        z[i] = pz + (pz - prevZ[i]) + az[i] * scale;
+
+        prevX[i] = px;
+        prevY[i] = py;
+        prevZ[i] = pz;
+
+        ax[i] = 0;
+        ay[i] = 0;
+        az[i] = 0;
+    }
+
+    /**
+     * Returns a view of the particle with the given handle.
+     *
+     * @param i The handle of the particle.
+     * @return A {@link Particle} reading and writing this store.
+     */
+    public Particle get(int i) {
+        return new Particle(this, i);
+    }
+}
@@ -0,0 +1,110 @@
+package com.moniev.verlet.core.Telemetry;
+
+/**
+ * Management interface of a running {@link com.moniev.verlet.core.MainEngine.Engine}, registered on the platform
+ * MBean server by {@link EngineMonitor} so JConsole, VisualVM or Mission Control can watch a live simulation.
+ * Every attribute is read from the thread of the management client while the engine keeps stepping,
+ * so values are samples and related attributes may come from consecutive substeps.
+ */
+public interface EngineMXBean {
+
+    /**
+     * Returns the number of particles in the simulation.
+     *
+     * @return The particle count.
+     */
+    int getParticleCount();
+
+    /**
+     * Returns the maximum number of particles of the simulation.
+     *
+     * @return The particles limit.
+     */
+    int getParticlesLimit();
+
+    /**
+     * Returns the number of substeps run since the engine was created.
+     *
+     * @return The substep count.
+     */
+    long getSubstepCount();
+
+    /**
+     * Returns the current depth of the octree.
+     *
+     * @return The number of levels down to the deepest leaf, 0 when the octree is not used.
+     */
+    int getTreeDepth();
+
+    /**
+     * Returns the number of leaves of the octree.
+     *
+     * @return The leaf count, 0 when the octree is not used.
+     */
+    int getLeafCount();
+
+    /**
+     * Returns the distribution of the particles per leaf after the last rebin.
+     * Element 0 counts the empty leaves and element k the leaves holding from 2^(k-1) to 2^k - 1 particles.
+     *
+     * @return The leaves per occupancy bucket, empty when the octree is not used.
+     */
+    int[] getLeafOccupancy();
+
+    /**
+     * Returns the number of contacts found by the last substep.
+     *
+     * @return The contact count.
+     */
+    int getLastSubstepContacts();
+
+    /**
+     * Returns the mean number of contacts found per substep since the engine was created.
+     *
+     * @return The contacts per substep.
+     */
+    double getContactsPerSubstep();
+
+    /**
+     * Returns the mean number of particle pairs tested by the octree per substep since the engine was created.
+     *
+     * @return The pairs tested per substep.
+     */
+    double getPairsTestedPerSubstep();
+
+    /**
+     * Returns the number of threads working on one parallel loop.
+     *
+     * @return The parallelism of the execution backend.
+     */
+    int getExecutorParallelism();
+
+    /**
+     * Returns the number of workers of the execution backend running chunks at the moment of the call.
+     *
+     * @return The busy workers.
+     */
+    int getExecutorActiveThreads();
+
+    /**
+     * Returns the busy workers relative to the parallelism at the moment of the call.
+     * Polling tools average the samples into the utilization over their polling window.
+     *
+     * @return The sampled utilization, between 0 and 1.
+     */
+    double getExecutorUtilization();
+
+    /**
+     * Returns the number of chunks or tasks waiting for a worker of the execution backend at the moment of the call.
+     *
+     * @return The queue depth.
+     */
+    long getExecutorQueuedTasks();
+
+    /**
+     * Returns one line per phase that ran since the engine was created: runs, mean, p50, p99 and max in milliseconds.
+     *
+     * @return The phase latency summary.
+     */
+    String[] getPhaseLatencies();
+}
@@ -0,0 +1,167 @@
+package com.moniev.verlet.core.Telemetry;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.EngineCounter;
+import com.moniev.verlet.core.MainEngine.EngineStats;
+import com.moniev.verlet.core.MainEngine.Octree;
+import com.moniev.verlet.core.MainEngine.SimulationPhase;
+
+/**
+ * The {@link EngineMXBean} of one engine, registered as {@code com.moniev.verlet:type=Engine,id=<n>}.
+ * The engine only pays for the monitor when a client reads an attribute.
+ * Requires java.lang.management, so it is only available on desktop and server JVMs.
+ */
+public class EngineMonitor implements EngineMXBean {
+
+    private static final AtomicInteger nextId = new AtomicInteger();  // Id of the next registered engine
+
+    private final Engine engine;  // The monitored engine
+    private final ObjectName name;  // Name of the bean on the platform MBean server
+
+    /**
+     * Constructs the monitor of an engine without registering it.
+     *
+     * @param engine The monitored engine.
+     * @param name The name of the bean.
+     */
+    private EngineMonitor(Engine engine, ObjectName name) {
+        this.engine = engine;
+        this.name = name;
+    }
+
+    /**
+     * Registers a monitor of an engine on the platform MBean server under a new id.
+     *
+     * @param engine The monitored engine.
+     * @return The registered monitor, unregistered by {@link #unregister()}.
+     * @throws IllegalStateException if the bean cannot be registered.
+     */
+    public static EngineMonitor register(Engine engine) {
+        try {
+            ObjectName name = new ObjectName("com.moniev.verlet:type=Engine,id=" + nextId.getAndIncrement());
+            EngineMonitor monitor = new EngineMonitor(engine, name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, name);
+            return monitor;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register the engine MBean", e);
+        }
+    }
+
+    /**
+     * Removes the bean from the platform MBean server, does nothing if it is already gone.
+     */
+    public void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister " + name, e);
+        }
+    }
+
+    /**
+     * Returns the name of the bean.
+     *
+     * @return The object name.
+     */
+    public ObjectName getName() {
+        return name;
+    }
+
+    @Override
+    public int getParticleCount() {
+        return engine.getParticleCount();
+    }
+
+    @Override
+    public int getParticlesLimit() {
+        return engine.particlesLimit;
+    }
+
+    @Override
+    public long getSubstepCount() {
+        return engine.getSubstepCount();
+    }
+
+    @Override
+    public int getTreeDepth() {
+        Octree tree = engine.tree;
+        return tree != null ? tree.getTreeDepth() : 0;
+    }
+
+    @Override
+    public int getLeafCount() {
+        Octree tree = engine.tree;
+        return tree != null ? tree.getLeafCount() : 0;
+    }
+
+    @Override
+    public int[] getLeafOccupancy() {
+        Octree tree = engine.tree;
+        return tree != null ? tree.getLeafOccupancy() : new int[0];
+    }
+
+    @Override
+    public int getLastSubstepContacts() {
+        return engine.getLastContacts();
+    }
+
+    @Override
+    public double getContactsPerSubstep() {
+        return perSubstep(EngineCounter.CONTACTS_FOUND);
+    }
+
+    @Override
+    public double getPairsTestedPerSubstep() {
+        return perSubstep(EngineCounter.PAIRS_TESTED);
+    }
+
+    @Override
+    public int getExecutorParallelism() {
+        return engine.backend.getParallelism();
+    }
+
+    @Override
+    public int getExecutorActiveThreads() {
+        return engine.backend.getActiveThreadCount();
+    }
+
+    @Override
+    public double getExecutorUtilization() {
+        return Math.min(1.0, (double) engine.backend.getActiveThreadCount() / engine.backend.getParallelism());
+    }
+
+    @Override
+    public long getExecutorQueuedTasks() {
+        return engine.backend.getQueuedTaskCount();
+    }
+
+    @Override
+    public String[] getPhaseLatencies() {
+        EngineStats stats = engine.getStats();
+        ArrayList<String> lines = new ArrayList<>();
+        for (SimulationPhase phase : SimulationPhase.values()) {
+            if (stats.getHistogram(phase).getCount() > 0) lines.add(stats.formatPhase(phase));
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the mean of a work counter per substep since the engine was created.
+     *
+     * @param counter The counter.
+     * @return The mean, 0 before the first substep.
+     */
+    private double perSubstep(EngineCounter counter) {
+        long substeps = engine.getSubstepCount();
+        return substeps == 0 ? 0 : (double) engine.getCounter(counter) / substeps;
+    }
+}
@@ -0,0 +1,41 @@
+package com.moniev.verlet.core.Telemetry;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.SimulationPhase;
+
+/**
+ * Receives the substeps and phases of the engine as timed events, implemented by the optional {@code jfr} module.
+ * Events are handed out as plain objects, so the engine never sees the types of the recorder.
+ */
+public interface EventRecorder {
+
+    /**
+     * Starts the event of a phase if the recorder wants it.
+     *
+     * @return The started event, to pass to {@link #endPhase(Object, SimulationPhase)}, or null.
+     */
+    Object beginPhase();
+
+    /**
+     * Ends and commits the event of a phase.
+     *
+     * @param token The event returned by {@link #beginPhase()}, never null.
+     * @param phase The phase that ran.
+     */
+    void endPhase(Object token, SimulationPhase phase);
+
+    /**
+     * Starts the event of a substep if the recorder wants it.
+     *
+     * @return The started event, to pass to {@link #endSubstep(Object, Engine)}, or null.
+     */
+    Object beginSubstep();
+
+    /**
+     * Ends and commits the event of a substep with the work done by the engine during it.
+     *
+     * @param token The event returned by {@link #beginSubstep()}, never null.
+     * @param engine The engine that ran the substep.
+     */
+    void endSubstep(Object token, Engine engine);
+}
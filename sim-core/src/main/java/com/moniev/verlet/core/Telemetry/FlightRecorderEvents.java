@@ -0,0 +1,81 @@
+package com.moniev.verlet.core.Telemetry;
+
+import com.moniev.verlet.core.MainEngine.Engine;
+import com.moniev.verlet.core.MainEngine.SimulationPhase;
+
+/**
+ * Emits the Flight Recorder events of the engine through the {@link EventRecorder} of the optional {@code jfr} module.
+ * The recorder is looked up once per JVM, like the SIMD kernel in {@link com.moniev.verlet.core.Kernel.Kernels},
+ * so this module needs no jdk.jfr classes at build time and keeps its Java 8 baseline. Without the module,
+ * or on a JVM without Flight Recorder, every call returns at once.
+ * Start a recording with {@code -XX:StartFlightRecording} or {@code jcmd JFR.start}.
+ */
+public final class FlightRecorderEvents {
+
+    public static final String JFR_RECORDER_CLASS = "com.moniev.verlet.jfr.JfrEventRecorder";  // Implementation provided by the jfr module
+
+    private static final EventRecorder RECORDER = load();  // Recorder found at startup, null when events are not available
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Loads the recorder of the jfr module.
+     *
+     * @return The recorder, or null if the module or Flight Recorder is missing.
+     */
+    private static EventRecorder load() {
+        try {
+            return (EventRecorder) Class.forName(JFR_RECORDER_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether events are emitted while a recording is on.
+     *
+     * @return true if the recorder was found.
+     */
+    public static boolean isAvailable() {
+        return RECORDER != null;
+    }
+
+    /**
+     * Starts the event of a phase if a recording wants it.
+     *
+     * @return The started event, to pass to {@link #endPhase(Object, SimulationPhase)}, or null.
+     */
+    public static Object beginPhase() {
+        return RECORDER != null ? RECORDER.beginPhase() : null;
+    }
+
+    /**
+     * Ends and commits the event of a phase.
+     *
+     * @param token The event returned by {@link #beginPhase()}, null does nothing.
+     * @param phase The phase that ran.
+     */
+    public static void endPhase(Object token, SimulationPhase phase) {
+        if (token != null) RECORDER.endPhase(token, phase);
+    }
+
+    /**
+     * Starts the event of a substep if a recording wants it.
+     *
+     * @return The started event, to pass to {@link #endSubstep(Object, Engine)}, or null.
+     */
+    public static Object beginSubstep() {
+        return RECORDER != null ? RECORDER.beginSubstep() : null;
+    }
+
+    /**
+     * Ends and commits the event of a substep with the work done by the engine during it.
+     *
+     * @param token The event returned by {@link #beginSubstep()}, null does nothing.
+     * @param engine The engine that ran the substep.
+     */
+    public static void endSubstep(Object token, Engine engine) {
+        if (token != null) RECORDER.endSubstep(token, engine);
+    }
+}
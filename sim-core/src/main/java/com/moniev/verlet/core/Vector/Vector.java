@@ -137,6 +137,104 @@ public class Vector {
         this.z = other.z;
     }
 
+    /**
+     * Sets the components of this vector.
+     * @param x The new x-coordinate.
+     * @param y The new y-coordinate.
+     * @param z The new z-coordinate.
+     * @return This vector for chaining.
+     */
+    public Vector set(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Adds another vector to this vector in place.
+     * @param other The vector to add.
+     * @return This vector for chaining.
+     */
+    public Vector addLocal(Vector other) {
+        return addLocal(other.x, other.y, other.z);
+    }
+
+    /**
+     * Adds the given components to this vector in place.
+     * @param x The x-component to add.
+     * @param y The y-component to add.
+     * @param z The z-component to add.
+     * @return This vector for chaining.
+     */
+    public Vector addLocal(float x, float y, float z) {
+        this.x += x;
+        this.y += y;
+        this.z += z;
+        return this;
+    }
+
+    /**
+     * Subtracts another vector from this vector in place.
+     * @param other The vector to subtract.
+     * @return This vector for chaining.
+     */
+    public Vector subLocal(Vector other) {
+        return subLocal(other.x, other.y, other.z);
+    }
+
+    /**
+     * Subtracts the given components from this vector in place.
+     * @param x The x-component to subtract.
+     * @param y The y-component to subtract.
+     * @param z The z-component to subtract.
+     * @return This vector for chaining.
+     */
+    public Vector subLocal(float x, float y, float z) {
+        this.x -= x;
+        this.y -= y;
+        this.z -= z;
+        return this;
+    }
+
+    /**
+     * Multiplies this vector by a scalar in place.
+     * @param scalar The scalar value to multiply the vector by.
+     * @return This vector for chaining.
+     */
+    public Vector scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        this.z *= scalar;
+        return this;
+    }
+
+    /**
+     * Adds another vector multiplied by a scalar to this vector in place.
+     * @param other The vector to add.
+     * @param scalar The scalar the added vector is multiplied by.
+     * @return This vector for chaining.
+     */
+    public Vector mulAddLocal(Vector other, float scalar) {
+        this.x += other.x * scalar;
+        this.y += other.y * scalar;
+        this.z += other.z * scalar;
+        return this;
+    }
+
+    /**
+     * Clamps this vector to a maximum length in place.
+     * @param maxLength The maximum length for the vector.
+     * @return This vector for chaining.
+     */
+    public Vector clampLocal(float maxLength) {
+        float lengthSquared = lengthSquared();
+        if (lengthSquared > maxLength * maxLength) {
+            scaleLocal(maxLength / (float) Math.sqrt(lengthSquared));
+        }
+        return this;
+    }
+
     /**
      * Sets all components of this vector to a single scalar value.
      * @param scalar The scalar value to assign to all components of the vector.
@@ -152,7 +250,15 @@ public class Vector {
      * @return The length of the vector.
      */
     public float length() {
-        return (float) Math.sqrt(Math.pow(this.x, 2) + Math.pow(this.y, 2) + Math.pow(this.z, 2));
+        return (float) Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Computes the squared length of the vector, avoiding the square root.
+     * @return The squared length of the vector.
+     */
+    public float lengthSquared() {
+        return this.x * this.x + this.y * this.y + this.z * this.z;
     }
 
     /**
@@ -161,7 +267,7 @@ public class Vector {
      * @return The distance between the two vectors.
      */
     public float distance(Vector other) {
-        return (float) Math.sqrt(Math.pow(this.x - other.x, 2) + Math.pow(this.y - other.y, 2) + Math.pow(this.z - other.z, 2));
+        return distance(other.x, other.y, other.z);
     }
 
     /**
@@ -172,7 +278,10 @@ public class Vector {
      * @return The distance between the vector and the point.
      */
     public float distance(float x, float y, float z) {
-        return (float) Math.sqrt(Math.pow(this.x - x, 2) + Math.pow(this.y - y, 2) + Math.pow(this.z - z, 2));
+        float dx = this.x - x;
+        float dy = this.y - y;
+        float dz = this.z - z;
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
 
     /**
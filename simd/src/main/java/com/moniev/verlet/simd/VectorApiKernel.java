@@ -0,0 +1,176 @@
+package com.moniev.verlet.simd;
+
+import com.moniev.verlet.core.Kernel.CollisionKernel;
+import com.moniev.verlet.core.Kernel.ScalarKernel;
+import com.moniev.verlet.core.Particle.ParticleStore;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link CollisionKernel} built on the JDK Vector API.
+ * Candidates are processed one lane-width block at a time, the remainder falls back to scalar code.
+ * The JVM has to be started with {@code --add-modules jdk.incubator.vector}, otherwise loading this class
+ * fails and {@link com.moniev.verlet.core.Kernel.Kernels} keeps the scalar kernel.
+ */
+public class VectorApiKernel implements CollisionKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;  // Widest shape supported by the CPU
+
+    @Override
+    public int overlaps(float px, float py, float pz, float pr,
+                        float[] cx, float[] cy, float[] cz, float[] cr,
+                        int from, int to, int[] hits) {
+        int count = 0;
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+
+        FloatVector vx = FloatVector.broadcast(SPECIES, px);
+        FloatVector vy = FloatVector.broadcast(SPECIES, py);
+        FloatVector vz = FloatVector.broadcast(SPECIES, pz);
+        FloatVector vr = FloatVector.broadcast(SPECIES, pr);
+
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector dx = vx.sub(FloatVector.fromArray(SPECIES, cx, i));
+            FloatVector dy = vy.sub(FloatVector.fromArray(SPECIES, cy, i));
+            FloatVector dz = vz.sub(FloatVector.fromArray(SPECIES, cz, i));
+            FloatVector radiusSum = vr.add(FloatVector.fromArray(SPECIES, cr, i));
+
+            FloatVector distanceSquared = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            VectorMask<Float> hit = distanceSquared.compare(VectorOperators.LE, radiusSum.mul(radiusSum));
+
+            if (hit.anyTrue()) {
+                long lanes = hit.toLong();
+                while (lanes != 0) {
+                    hits[count++] = i + Long.numberOfTrailingZeros(lanes);
+                    lanes &= lanes - 1;
+                }
+            }
+        }
+
+        for (; i < to; i++) {
+            float dx = px - cx[i];
+            float dy = py - cy[i];
+            float dz = pz - cz[i];
+            float radiusSum = pr + cr[i];
+            if (dx * dx + dy * dy + dz * dz <= radiusSum * radiusSum) {
+                hits[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void integrate(ParticleStore store, int from, int to, float dt) {
+        float scale = dt * dt * 0.27f;
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+
+        FloatVector vScale = FloatVector.broadcast(SPECIES, scale);
+        FloatVector zero = FloatVector.zero(SPECIES);
+
+        for (; i < upper; i += SPECIES.length()) {
+            integrateAxis(store.x, store.prevX, store.ax, i, vScale);
+            integrateAxis(store.y, store.prevY, store.ay, i, vScale);
+            integrateAxis(store.z, store.prevZ, store.az, i, vScale);
+            zero.intoArray(store.ax, i);
+            zero.intoArray(store.ay, i);
+            zero.intoArray(store.az, i);
+        }
+
+        for (; i < to; i++) {
+            store.update(i, dt);
+        }
+    }
+
+    @Override
+    public int advance(ParticleStore store, int from, int to, float dt, float gx, float gy, float gz, float[] walls, int[] touching) {
+        float scale = dt * dt * 0.27f;
+        int count = 0;
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+
+        FloatVector vScale = FloatVector.broadcast(SPECIES, scale);
+        FloatVector vgx = FloatVector.broadcast(SPECIES, gx);
+        FloatVector vgy = FloatVector.broadcast(SPECIES, gy);
+        FloatVector vgz = FloatVector.broadcast(SPECIES, gz);
+        FloatVector zero = FloatVector.zero(SPECIES);
+
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector radius = FloatVector.fromArray(SPECIES, store.radius, i);
+            VectorMask<Float> wall = advanceAxis(store.x, store.prevX, store.ax, i, vgx, vScale, radius, walls[0], walls[3]);
+            wall = wall.or(advanceAxis(store.y, store.prevY, store.ay, i, vgy, vScale, radius, walls[1], walls[4]));
+            wall = wall.or(advanceAxis(store.z, store.prevZ, store.az, i, vgz, vScale, radius, walls[2], walls[5]));
+            zero.intoArray(store.ax, i);
+            zero.intoArray(store.ay, i);
+            zero.intoArray(store.az, i);
+
+            if (wall.anyTrue()) {
+                long lanes = wall.toLong();
+                while (lanes != 0) {
+                    touching[count++] = i + Long.numberOfTrailingZeros(lanes);
+                    lanes &= lanes - 1;
+                }
+            }
+        }
+
+        for (; i < to; i++) {
+            store.accelerate(i, gx, gy, gz);
+            store.update(i, dt);
+            if (ScalarKernel.touchesWall(store, i, walls)) touching[count++] = i;
+        }
+        return count;
+    }
+
+    /**
+     * Adds gravity to one coordinate column of a lane-width block of particles, advances it
+     * and tests the new positions against the walls of that axis.
+     *
+     * @param position The current position column.
+     * @param previous The previous position column.
+     * @param acceleration The acceleration column.
+     * @param i The index of the first particle in the block.
+     * @param gravity The gravity component of the axis.
+     * @param scale The acceleration scale of the Verlet step.
+     * @param radius The radii of the particles.
+     * @param min The lower wall of the axis.
+     * @param max The upper wall of the axis.
+     * @return The lanes touching one of the two walls.
+     */
+    private static VectorMask<Float> advanceAxis(float[] position, float[] previous, float[] acceleration, int i,
+                                                 FloatVector gravity, FloatVector scale, FloatVector radius, float min, float max) {
+        FloatVector current = FloatVector.fromArray(SPECIES, position, i);
+        FloatVector last = FloatVector.fromArray(SPECIES, previous, i);
+        FloatVector accel = FloatVector.fromArray(SPECIES, acceleration, i).add(gravity);
+
+        FloatVector next = current.add(current.sub(last)).add(accel.mul(scale));
+        next.intoArray(position, i);
+        current.intoArray(previous, i);
+        return next.sub(radius).compare(VectorOperators.LE, min).or(next.add(radius).compare(VectorOperators.GE, max));
+    }
+
+    /**
+     * Advances one coordinate column of a lane-width block of particles.
+     *
+     * @param position The current position column.
+     * @param previous The previous position column.
+     * @param acceleration The acceleration column.
+     * @param i The index of the first particle in the block.
+     * @param scale The acceleration scale of the Verlet step.
+     */
+    private static void integrateAxis(float[] position, float[] previous, float[] acceleration, int i, FloatVector scale) {
+        FloatVector current = FloatVector.fromArray(SPECIES, position, i);
+        FloatVector last = FloatVector.fromArray(SPECIES, previous, i);
+        FloatVector accel = FloatVector.fromArray(SPECIES, acceleration, i);
+
+        current.add(current.sub(last)).add(accel.mul(scale)).intoArray(position, i);
+        current.intoArray(previous, i);
+    }
+
+    @Override
+    public String name() {
+        return "simd-" + SPECIES.length() + "x" + SPECIES.elementSize();
+    }
+}